@@ -0,0 +1,51 @@
+package kata.benchmarks;
+
+import kata.model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of registering transactions on an in-memory account with a given number of past transactions
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("10.50");
+
+    @Param({"1000", "100000", "1000000"})
+    private int ledgerSize;
+
+    private Account account;
+
+    // a fresh account per iteration, so that its size does not drift far from ledgerSize
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = new Account(Ledgers.SILENT_PRINTER, Ledgers.generate(ledgerSize));
+        account.makeDeposit(new BigDecimal("1000000"), "Initial deposit");
+    }
+
+    @Benchmark
+    public boolean deposit() {
+        return account.makeDeposit(AMOUNT, "Deposit");
+    }
+
+    @Benchmark
+    public boolean depositAndWithdraw() {
+        return account.makeDeposit(AMOUNT, "Deposit") & account.makeWithdrawal(AMOUNT, "Withdrawal");
+    }
+}
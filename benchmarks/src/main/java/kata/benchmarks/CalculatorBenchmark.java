@@ -0,0 +1,59 @@
+package kata.benchmarks;
+
+import kata.model.SumsOfTransactionsForPrinting;
+import kata.model.Transaction;
+import kata.model.TransactionLedger;
+import kata.utils.Calculator;
+import kata.utils.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Statement totals of a time range covering half of the history, summed from the filtered list
+// and from the ledger prefix sums
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculatorBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int ledgerSize;
+
+    private TransactionLedger ledger;
+    private List<Transaction> transactionsInRange;
+    private LocalDateTime endDateTime;
+    private BigDecimal balance;
+
+    @Setup
+    public void setUp() {
+        ledger = Ledgers.generate(ledgerSize);
+        endDateTime = Ledgers.endOfRange(ledgerSize, 0.5);
+        transactionsInRange = List.copyOf(Filter.filterTransactionsByTimeRangeAndType(ledger, Ledgers.FIRST_DATE, endDateTime, null));
+        balance = ledger.getTransactions().get(ledgerSize - 1).getBalance();
+    }
+
+    @Benchmark
+    public SumsOfTransactionsForPrinting list() {
+        return Calculator.calculateSumsOfTransactionsForPrinting(balance, null, transactionsInRange);
+    }
+
+    @Benchmark
+    public SumsOfTransactionsForPrinting ledger() {
+        return Calculator.calculateSumsOfTransactionsForPrinting(balance, null, ledger, Ledgers.FIRST_DATE, endDateTime);
+    }
+}
@@ -0,0 +1,62 @@
+package kata.benchmarks;
+
+import kata.model.Transaction;
+import kata.model.TransactionLedger;
+import kata.model.TransactionType;
+import kata.utils.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Filtering deposits within a time range covering the given fraction (selectivity) of the history,
+// by scanning the whole list and through the ledger indexes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int ledgerSize;
+
+    @Param({"0.01", "0.1", "1.0"})
+    private double selectivity;
+
+    private TransactionLedger ledger;
+    private List<Transaction> transactions;
+    private LocalDateTime endDateTime;
+
+    @Setup
+    public void setUp() {
+        ledger = Ledgers.generate(ledgerSize);
+        transactions = List.copyOf(ledger.getTransactions());
+        endDateTime = Ledgers.endOfRange(ledgerSize, selectivity);
+    }
+
+    @Benchmark
+    public List<Transaction> scanningList() {
+        return Filter.filterTransactionsByTimeRangeAndType(transactions, Ledgers.FIRST_DATE, endDateTime, TransactionType.DEPOSIT);
+    }
+
+    // the ledger returns a view, so it is iterated over to touch the same transactions the scan returns
+    @Benchmark
+    public void ledgerIndexes(Blackhole blackhole) {
+        for (Transaction transaction : Filter.filterTransactionsByTimeRangeAndType(ledger, Ledgers.FIRST_DATE, endDateTime, TransactionType.DEPOSIT)) {
+            blackhole.consume(transaction);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package kata.benchmarks;
+
+import kata.io.AccountHttpServer;
+import kata.io.Printer;
+import kata.model.Bank;
+import kata.utils.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latency distribution of AccountHttpServer requests sent back to back by concurrent connections (one per benchmark
+// thread, change them with -t to see how it scales): 80% deposits, 15% withdrawals and 5% statements,
+// spread over 64 accounts
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Threads(16)
+public class HttpBenchmark {
+    private static final int NUMBER_OF_ACCOUNTS = 64;
+
+    private Bank bank;
+    private AccountHttpServer server;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        bank = new Bank(new Printer(notification -> {
+        }));
+        server = AccountHttpServer.start(bank, Metrics.GLOBAL, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        baseUrl = "http://localhost:" + server.getPort();
+        HttpClient client = HttpClient.newHttpClient();
+        for (int i = 0; i < NUMBER_OF_ACCOUNTS; i++) {
+            send(client, "POST", "/accounts/" + accountId(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        server.close();
+        bank.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Connection {
+        private HttpClient client;
+
+        @Setup
+        public void setUp() {
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+
+        @TearDown
+        public void tearDown() {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public int request(Connection connection) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String account = "/accounts/" + accountId(random.nextInt(NUMBER_OF_ACCOUNTS));
+        int draw = random.nextInt(100);
+        if (draw < 80) {
+            return send(connection.client, "POST", account + "/deposit?amount=" + random.nextInt(1, 1000) + "&description=Benchmark");
+        }
+        if (draw < 95) {
+            return send(connection.client, "POST", account + "/withdrawal?amount=" + random.nextInt(1, 100) + "&description=Benchmark");
+        }
+        return send(connection.client, "GET", account + "/statement?type=WITHDRAWAL");
+    }
+
+    private int send(HttpClient client, String method, String path) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + path)).method(method, HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.discarding());
+        // rejected withdrawals are valid answers
+        if (response.statusCode() / 100 != 2 && response.statusCode() != 422) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " of " + method + " " + path);
+        }
+        return response.statusCode();
+    }
+
+    private static String accountId(int index) {
+        return "BENCHMARK-" + index;
+    }
+}
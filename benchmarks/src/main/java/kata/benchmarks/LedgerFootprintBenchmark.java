@@ -0,0 +1,64 @@
+package kata.benchmarks;
+
+import kata.model.ColumnarTransactionLedger;
+import kata.model.TransactionLedger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Heap retained by ledgers of Transaction objects and of primitive columns, reported as the
+// retainedBytesPerTransaction counter; the time is the one of building the ledger plus the full GCs
+// needed to measure it, so only compare it between ledger types
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LedgerFootprintBenchmark {
+    @Param({"object", "columnar"})
+    private String ledgerType;
+
+    @Param({"1000000", "10000000"})
+    private int ledgerSize;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytesPerTransaction;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytesPerTransaction = 0;
+        }
+    }
+
+    @Benchmark
+    public TransactionLedger build(Footprint footprint) {
+        long usedBefore = usedHeapAfterGc();
+        TransactionLedger ledger = Ledgers.generate(
+                ledgerType.equals("columnar") ? ColumnarTransactionLedger.EMPTY : TransactionLedger.EMPTY, ledgerSize);
+        footprint.retainedBytesPerTransaction = (usedHeapAfterGc() - usedBefore) / ledger.size();
+        return ledger;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,51 @@
+package kata.benchmarks;
+
+import kata.io.Printer;
+import kata.model.Transaction;
+import kata.model.TransactionLedger;
+import kata.model.TransactionType;
+
+import java.time.LocalDateTime;
+
+// Synthetic histories shared by the benchmarks: one transaction per minute, every third one a withdrawal
+final class Ledgers {
+    static final LocalDateTime FIRST_DATE = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    static final Printer SILENT_PRINTER = new Printer() {
+        @Override
+        public void printLine(String text) {
+        }
+    };
+
+    private Ledgers() {
+    }
+
+    static TransactionLedger generate(int size) {
+        return generate(TransactionLedger.EMPTY, size);
+    }
+
+    // descriptions repeat (as card payments to the same merchants do) but are separate String instances,
+    // the same as after replaying them from the journal
+    static TransactionLedger generate(TransactionLedger emptyLedger, int size) {
+        TransactionLedger ledger = emptyLedger;
+        long balance = 0;
+        for (int i = 0; i < size; i++) {
+            boolean deposit = i % 3 != 2;
+            long amount = (i % 1000 + 1) * 100L;
+            balance += deposit ? amount : -amount;
+            ledger = ledger.add(new Transaction(
+                    FIRST_DATE.plusMinutes(i),
+                    "Card payment to merchant " + i % 1000,
+                    amount,
+                    balance,
+                    deposit ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL,
+                    null));
+        }
+        return ledger;
+    }
+
+    // end of the time range starting at FIRST_DATE and covering the given fraction of a ledger of the given size
+    static LocalDateTime endOfRange(int size, double selectivity) {
+        return FIRST_DATE.plusMinutes((long) (size * selectivity) - 1);
+    }
+}
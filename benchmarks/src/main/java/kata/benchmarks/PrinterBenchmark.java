@@ -0,0 +1,62 @@
+package kata.benchmarks;
+
+import kata.io.Printer;
+import kata.model.SumsOfTransactionsForPrinting;
+import kata.model.Transaction;
+import kata.model.TransactionLedger;
+import kata.utils.Calculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rendering the full statement; the standard output is redirected to a discarding stream meanwhile,
+// so the rendering itself is measured and not the terminal
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PrinterBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int ledgerSize;
+
+    private final Printer printer = new Printer();
+    private List<Transaction> transactions;
+    private SumsOfTransactionsForPrinting sums;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        TransactionLedger ledger = Ledgers.generate(ledgerSize);
+        transactions = ledger.getTransactions();
+        sums = Calculator.calculateSumsOfTransactionsForPrinting(
+                ledger.getTransactions().get(ledgerSize - 1).getBalance(), null, ledger, null, null);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void printTransactionHistory() {
+        printer.printTransactionHistory(transactions, sums, null, null);
+    }
+}
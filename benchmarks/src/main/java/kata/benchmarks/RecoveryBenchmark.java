@@ -0,0 +1,82 @@
+package kata.benchmarks;
+
+import kata.io.SnapshotStore;
+import kata.io.TransactionJournal;
+import kata.model.Account;
+import kata.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Recovery of an account replaying its whole journal against loading the latest snapshot and replaying
+// only the journal tail written after it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RecoveryBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int historySize;
+
+    @Param({"1000"})
+    private int tailSize;
+
+    private Path directory;
+    private SnapshotStore snapshotStore;
+    private TransactionJournal journal;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        directory = Files.createTempDirectory("recovery-benchmark");
+        Path journalPath = directory.resolve("account.journal");
+        snapshotStore = new SnapshotStore(directory.resolve("snapshots"));
+
+        List<Transaction> transactions = Ledgers.generate(historySize).getTransactions();
+        try (TransactionJournal writer = TransactionJournal.open(journalPath)) {
+            transactions.subList(0, historySize - tailSize).forEach(writer::append);
+            writer.sync().join();
+            snapshotStore.write(transactions.subList(0, historySize - tailSize), writer.getAppendedLength());
+            transactions.subList(historySize - tailSize, historySize).forEach(writer::append);
+        }
+        journal = TransactionJournal.open(journalPath);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        journal.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Account fullJournalReplay() throws IOException {
+        return new Account(Ledgers.SILENT_PRINTER, journal);
+    }
+
+    @Benchmark
+    public Account snapshotAndTailReplay() throws IOException {
+        return new Account(Ledgers.SILENT_PRINTER, journal, snapshotStore);
+    }
+}
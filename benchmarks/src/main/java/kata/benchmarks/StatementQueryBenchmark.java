@@ -0,0 +1,75 @@
+package kata.benchmarks;
+
+import kata.model.StatementQueryResult;
+import kata.model.SumsOfTransactionsForPrinting;
+import kata.model.Transaction;
+import kata.model.TransactionLedger;
+import kata.model.TransactionType;
+import kata.utils.Calculator;
+import kata.utils.Filter;
+import kata.utils.StatementQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Deposits statement of a time range covering half of the history: Filter (one pass for the time range, one for
+// the type) followed by Calculator (one more pass) against the single fused pass of StatementQuery,
+// over a plain list and over the ledger
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementQueryBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int ledgerSize;
+
+    private TransactionLedger ledger;
+    private List<Transaction> transactions;
+    private LocalDateTime endDateTime;
+    private BigDecimal balance;
+
+    @Setup
+    public void setUp() {
+        ledger = Ledgers.generate(ledgerSize);
+        transactions = List.copyOf(ledger.getTransactions());
+        endDateTime = Ledgers.endOfRange(ledgerSize, 0.5);
+        balance = transactions.get(ledgerSize - 1).getBalance();
+    }
+
+    @Benchmark
+    public SumsOfTransactionsForPrinting filterAndCalculatorOnList(Blackhole blackhole) {
+        List<Transaction> deposits = Filter.filterTransactionsByTimeRangeAndType(transactions, Ledgers.FIRST_DATE, endDateTime, TransactionType.DEPOSIT);
+        blackhole.consume(deposits);
+        return Calculator.calculateSumsOfTransactionsForPrinting(balance, TransactionType.DEPOSIT, deposits);
+    }
+
+    @Benchmark
+    public SumsOfTransactionsForPrinting statementQueryOnList(Blackhole blackhole) {
+        StatementQueryResult result = StatementQuery.execute(transactions, Ledgers.FIRST_DATE, endDateTime, TransactionType.DEPOSIT);
+        blackhole.consume(result.getTransactions());
+        return result.toSumsOfTransactionsForPrinting(balance, TransactionType.DEPOSIT);
+    }
+
+    @Benchmark
+    public SumsOfTransactionsForPrinting statementQueryOnLedger(Blackhole blackhole) {
+        StatementQueryResult result = StatementQuery.execute(ledger, Ledgers.FIRST_DATE, endDateTime, TransactionType.DEPOSIT);
+        blackhole.consume(result.getTransactions());
+        return result.toSumsOfTransactionsForPrinting(balance, TransactionType.DEPOSIT);
+    }
+}
@@ -0,0 +1,64 @@
+package kata.benchmarks;
+
+import kata.model.Account;
+import kata.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Taking a snapshot of the account history against the former deep copy, which cloned every transaction
+// through Java serialization (as SerializationUtils.clone() does)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionSnapshotBenchmark {
+    @Param({"1000", "100000"})
+    private int ledgerSize;
+
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = new Account(Ledgers.SILENT_PRINTER, Ledgers.generate(ledgerSize));
+    }
+
+    @Benchmark
+    public List<Transaction> snapshot() {
+        return account.getTransactionsSnapshot();
+    }
+
+    @Benchmark
+    public List<Transaction> serializationClone() throws IOException, ClassNotFoundException {
+        List<Transaction> transactions = account.getTransactionsSnapshot();
+        Transaction[] clones = new Transaction[transactions.size()];
+        for (int i = 0; i < clones.length; i++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+            try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+                output.writeObject(transactions.get(i));
+            }
+            try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                clones[i] = (Transaction) input.readObject();
+            }
+        }
+        return List.of(clones);
+    }
+}
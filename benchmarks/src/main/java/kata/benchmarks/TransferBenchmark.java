@@ -0,0 +1,80 @@
+package kata.benchmarks;
+
+import kata.model.Account;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of random transfers between accounts shared by all benchmark threads (change them with -t):
+// a small number of accounts shows the behaviour under high contention, a large one under low contention
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TransferBenchmark {
+    private static final BigDecimal INITIAL_DEPOSIT = new BigDecimal("1000000");
+
+    @Param({"2", "16", "1024"})
+    private int numberOfAccounts;
+
+    private Account[] accounts;
+
+    // fresh accounts per iteration, so that their histories do not grow without bound
+    @Setup(Level.Iteration)
+    public void setUp() {
+        accounts = new Account[numberOfAccounts];
+        for (int i = 0; i < numberOfAccounts; i++) {
+            accounts[i] = new Account(Ledgers.SILENT_PRINTER);
+            accounts[i].makeDeposit(INITIAL_DEPOSIT, "Initial deposit");
+        }
+    }
+
+    // a transfer rejected for lack of funds is still an operation of the primary result, but only the
+    // successful ones are counted in "transfers"
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Transfers {
+        public long transfers;
+        public long rejectedTransfers;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            transfers = 0;
+            rejectedTransfers = 0;
+        }
+    }
+
+    @Benchmark
+    public boolean transfer(Transfers counters) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int source = random.nextInt(numberOfAccounts);
+        int target = random.nextInt(numberOfAccounts - 1);
+        target = target >= source ? target + 1 : target;
+        boolean transferred = accounts[source].transferTo(
+                accounts[target], BigDecimal.valueOf(random.nextInt(1, 100)), "Benchmark transfer");
+        if (transferred) {
+            counters.transfers++;
+        } else {
+            counters.rejectedTransfers++;
+        }
+        return transferred;
+    }
+}
@@ -1,12 +1,28 @@
 package kata.app;
 
+import kata.io.AccountHttpServer;
+import kata.io.AsyncNotificationSink;
 import kata.io.Printer;
 import kata.model.Account;
+import kata.model.Bank;
+import kata.utils.Metrics;
 import kata.utils.RandomTransactionsGenerator;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
 public class Application {
-    public static void main(String[] args) {
-        Printer printer = new Printer();
+    // "serve [port]" starts the HTTP server mode instead of the demo, see AccountHttpServer
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length > 0 && args[0].equals("serve")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : 8080);
+            return;
+        }
+
+        AsyncNotificationSink notificationSink = AsyncNotificationSink.toStandardOutput(
+                1024, AsyncNotificationSink.OverflowPolicy.BLOCK);
+        Printer printer = new Printer(notificationSink);
         Account account = new Account(RandomTransactionsGenerator.generateRandomPreTransactions(), printer);
 //        Account account = new Account(printer);
 //        registerTestTransactions(account);
@@ -23,6 +39,33 @@ public class Application {
 //                LocalDate.of(2025, 1, 15),
 //                LocalDate.of(2025, 2, 15),
 //                TransactionType.DEPOSIT);
+
+        notificationSink.close();
+    }
+
+    // Runs until the process is stopped. Rejection messages are dropped rather than slowing down requests
+    // when the standard output cannot keep up.
+    private static void serve(int port) throws IOException, InterruptedException {
+        // The JDK HTTP server writes a response as headers and body separately: with Nagle's algorithm the body
+        // waits for the client's delayed ACK of the headers, adding 40 ms to every request. The property applies
+        // to every HttpServer of the process and is read once, so it is set before the first one is created.
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        AsyncNotificationSink notificationSink = AsyncNotificationSink.toStandardOutput(
+                1024, AsyncNotificationSink.OverflowPolicy.DROP);
+        Bank bank = new Bank(new Printer(notificationSink));
+        AccountHttpServer server = AccountHttpServer.start(
+                bank, Metrics.GLOBAL, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        System.out.println("Serving accounts at http://localhost:" + server.getPort() + "/accounts/");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            try {
+                bank.close();
+                notificationSink.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Thread.currentThread().join();
     }
 
 }
@@ -0,0 +1,200 @@
+package kata.io;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import kata.model.Account;
+import kata.model.Bank;
+import kata.model.TransactionType;
+import kata.utils.Metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Serves accounts of a Bank over plain HTTP, every request in its own virtual thread. Handlers call the thread-safe
+// Account methods directly rather than through the Bank shard lanes: a virtual thread waiting for the write lock or
+// the journal unmounts from its carrier, so many thousands of concurrent requests need only a few platform threads.
+//   POST /accounts/{id}                              opens an account
+//   POST /accounts/{id}/deposit?amount=&description=
+//   POST /accounts/{id}/withdrawal?amount=&description=
+//   POST /accounts/{id}/full-withdrawal
+//   GET  /accounts/{id}/balance                      in EUR with 2 decimal places
+//   GET  /accounts/{id}/statement[?from=&to=][&type=] the same table as printed, dates as yyyy-MM-dd
+//   GET  /metrics                                    see MetricsHttpServer
+// Registered operations answer 200, the ones rejected by the account (e.g. for insufficient funds) 422.
+// Meant to be bound to a local address only, it has no authentication.
+// Without the JVM-wide sun.net.httpserver.nodelay property every response takes 40 ms longer, see Application.
+public class AccountHttpServer implements AutoCloseable {
+    private static final int BACKLOG = 1024;
+    // Amounts are kept as a long number of cents, which holds at most 17 integer digits of euros. Both bounds are
+    // checked before converting, as rounding e.g. 1e1000000 to cents would expand it into a million digits.
+    private static final int MAX_AMOUNT_INTEGER_DIGITS = 17;
+    private static final int MAX_AMOUNT_SCALE = 20;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Bank bank;
+
+    private AccountHttpServer(HttpServer server, ExecutorService executor, Bank bank) {
+        this.server = server;
+        this.executor = executor;
+        this.bank = bank;
+    }
+
+    // Port 0 picks a free one, see getPort()
+    public static AccountHttpServer start(Bank bank, Metrics metrics, InetSocketAddress address) throws IOException {
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        AccountHttpServer accountServer = new AccountHttpServer(server, executor, bank);
+        server.createContext("/accounts/", accountServer::respond);
+        server.createContext("/metrics", exchange -> MetricsHttpServer.respond(exchange, metrics));
+        server.setExecutor(executor);
+        server.start();
+        return accountServer;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Requests being handled are completed before the executor is closed
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().substring("/accounts/".length()).split("/");
+            if (path.length > 2 || path[0].isEmpty()) {
+                send(exchange, 404, "Not found.");
+                return;
+            }
+            String accountId = path[0];
+            String operation = path.length == 2 ? path[1] : "";
+            String method = exchange.getRequestMethod();
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if (operation.isEmpty()) {
+                if (!method.equals("POST")) {
+                    send(exchange, 405, "Method not allowed.");
+                    return;
+                }
+                try {
+                    bank.openAccount(accountId);
+                } catch (IllegalArgumentException e) {
+                    send(exchange, 409, e.getMessage());
+                    return;
+                }
+                send(exchange, 201, "Account opened.");
+                return;
+            }
+
+            Account account;
+            try {
+                account = bank.getAccount(accountId);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 404, e.getMessage());
+                return;
+            }
+            String allowedMethod = switch (operation) {
+                case "deposit", "withdrawal", "full-withdrawal" -> "POST";
+                case "balance", "statement" -> "GET";
+                default -> null;
+            };
+            if (allowedMethod == null) {
+                send(exchange, 404, "Not found.");
+                return;
+            }
+            if (!method.equals(allowedMethod)) {
+                send(exchange, 405, "Method not allowed.");
+                return;
+            }
+            try {
+                switch (operation) {
+                    case "deposit" -> sendResult(exchange,
+                            account.makeDeposit(parseAmount(parameters), parameters.get("description")));
+                    case "withdrawal" -> sendResult(exchange,
+                            account.makeWithdrawal(parseAmount(parameters), parameters.get("description")));
+                    case "full-withdrawal" -> sendResult(exchange, account.withdrawAllFunds());
+                    case "balance" -> send(exchange, 200, account.getBalance().toPlainString());
+                    default -> sendStatement(exchange, account, parameters);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                send(exchange, 400, e.getMessage());
+            }
+        }
+    }
+
+    private static BigDecimal parseAmount(Map<String, String> parameters) {
+        String amount = parameters.get("amount");
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount must be provided.");
+        }
+        BigDecimal parsedAmount = new BigDecimal(amount);
+        if (parsedAmount.precision() - parsedAmount.scale() > MAX_AMOUNT_INTEGER_DIGITS || parsedAmount.scale() > MAX_AMOUNT_SCALE) {
+            throw new IllegalArgumentException("Amount is out of range.");
+        }
+        return parsedAmount;
+    }
+
+    // parameters are validated before the response is started, as the statement is streamed
+    private static void sendStatement(HttpExchange exchange, Account account, Map<String, String> parameters) throws IOException {
+        LocalDate from = parameters.containsKey("from") ? LocalDate.parse(parameters.get("from")) : null;
+        LocalDate to = parameters.containsKey("to") ? LocalDate.parse(parameters.get("to")) : null;
+        TransactionType type = parameters.containsKey("type") ? TransactionType.valueOf(parameters.get("type")) : null;
+        if ((from == null) != (to == null) || (from != null && from.isAfter(to))) {
+            throw new IllegalArgumentException("Either both or none of the dates must be provided and from must not be after to.");
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 16)) {
+            account.writeTransactionsByTimeRangeAndType(writer, from, to, type);
+        }
+    }
+
+    private static void sendResult(HttpExchange exchange, boolean registered) throws IOException {
+        if (registered) {
+            send(exchange, 200, "Transaction registered.");
+        } else {
+            send(exchange, 422, "Transaction rejected.");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = (text + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+}
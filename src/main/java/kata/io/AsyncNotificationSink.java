@@ -0,0 +1,192 @@
+package kata.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Notifications are put into a bounded ring buffer and written by a background thread, so publishing them does not
+// wait for the console or the log file: all notifications published while the previous batch was being written are
+// written together and flushed once.
+// When the buffer is full, the overflow policy decides whether publishing waits for space (BLOCK) or the new
+// notification is dropped (DROP). Notifications are best effort, ones which failed to be written count as dropped.
+public class AsyncNotificationSink implements NotificationSink, AutoCloseable {
+    private final Writer writer;
+    private final OverflowPolicy overflowPolicy;
+    private final String[] buffer;
+    private final Thread flusher;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition written = lock.newCondition();
+    // index of the oldest buffered notification
+    private int head;
+    private int count;
+    private long publishedCount;
+    private long writtenCount;
+    private long droppedCount;
+    private boolean closed;
+    // set by the flusher on exiting, after which nothing more is written
+    private boolean flusherFinished;
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP
+    }
+
+    public AsyncNotificationSink(Writer writer, int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero.");
+        }
+        this.writer = writer;
+        this.overflowPolicy = overflowPolicy;
+        this.buffer = new String[capacity];
+        this.flusher = new Thread(this::writeBufferedNotifications, "notification-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public static AsyncNotificationSink toStandardOutput(int capacity, OverflowPolicy overflowPolicy) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), 1 << 16);
+        return new AsyncNotificationSink(writer, capacity, overflowPolicy);
+    }
+
+    @Override
+    public void publish(String notification) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Notification sink has already been closed.");
+            }
+            if (count == buffer.length && overflowPolicy == OverflowPolicy.DROP) {
+                droppedCount++;
+                return;
+            }
+            while (count == buffer.length) {
+                notFull.awaitUninterruptibly();
+                // the flusher may have drained the buffer for the last time while this thread was waiting
+                if (closed || flusherFinished) {
+                    throw new IllegalStateException("Notification sink has been closed while waiting for space.");
+                }
+            }
+            buffer[(head + count) % buffer.length] = notification;
+            count++;
+            publishedCount++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Also returns once the flusher has finished, as nothing more is going to be written then
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            long target = publishedCount;
+            while (writtenCount < target && !flusherFinished) {
+                written.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Notifications published before closing are still written
+    @Override
+    public void close() throws InterruptedException {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join();
+    }
+
+    private void writeBufferedNotifications() {
+        try {
+            writeUntilClosed();
+        } finally {
+            lock.lock();
+            try {
+                flusherFinished = true;
+                written.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeUntilClosed() {
+        String[] batch = new String[buffer.length];
+        while (true) {
+            int batchSize;
+            lock.lock();
+            try {
+                while (count == 0 && !closed) {
+                    try {
+                        notEmpty.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (count == 0) {
+                    return;
+                }
+                batchSize = count;
+                for (int i = 0; i < batchSize; i++) {
+                    int index = (head + i) % buffer.length;
+                    batch[i] = buffer[index];
+                    buffer[index] = null;
+                }
+                head = (head + batchSize) % buffer.length;
+                count = 0;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            boolean batchWritten = writeBatch(batch, batchSize);
+
+            lock.lock();
+            try {
+                writtenCount += batchSize;
+                if (!batchWritten) {
+                    droppedCount += batchSize;
+                }
+                written.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean writeBatch(String[] batch, int batchSize) {
+        try {
+            for (int i = 0; i < batchSize; i++) {
+                writer.write(batch[i]);
+                writer.write(System.lineSeparator());
+                batch[i] = null;
+            }
+            writer.flush();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
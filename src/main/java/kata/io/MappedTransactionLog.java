@@ -0,0 +1,230 @@
+package kata.io;
+
+import kata.model.Transaction;
+import kata.model.TransactionType;
+import kata.utils.Calculator;
+import kata.utils.Filter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Read-only, date-ordered transaction history stored in a file of fixed-width records, which is memory-mapped
+// when opened. Transactions are decoded from the mapped file only when accessed, so time range lookups
+// (binary search) and statement printing never load the whole history onto the heap.
+//
+// File layout: [header][records][string heap]
+// header (64 bytes):  int magic, int version, long number of records, long string heap offset
+// record (64 bytes):  long epoch second, int nano, byte type, 3 bytes padding,
+//                     long amount in euro cents, long balance in euro cents,
+//                     long description offset, int description length, int transfer reference length,
+//                     long transfer reference offset, long reserved
+// Strings are UTF-8 encoded and never cross a mapped chunk boundary; length -1 stands for null.
+public class MappedTransactionLog implements AutoCloseable {
+    private static final int MAGIC = 0x4B54584C;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 64;
+    private static final int CHUNK_SIZE = 1 << 30;
+    private static final int RECORDS_PER_CHUNK = CHUNK_SIZE / RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] recordChunks;
+    private final MappedByteBuffer[] stringChunks;
+    private final int size;
+    private final List<Transaction> transactions = new MappedTransactions();
+
+    private MappedTransactionLog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a transaction log file of a supported version.");
+        }
+        this.size = Math.toIntExact(header.getLong());
+        long stringHeapOffset = header.getLong();
+
+        this.recordChunks = mapChunks(channel, HEADER_SIZE, (long) size * RECORD_SIZE);
+        this.stringChunks = mapChunks(channel, stringHeapOffset, channel.size() - stringHeapOffset);
+    }
+
+    public static MappedTransactionLog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedTransactionLog(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Transactions are expected in date order, as kept by TransactionLedger. The file is synced before returning.
+    public static void write(Path path, List<Transaction> transactions) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        long stringHeapSize = 0;
+        long stringHeapOffset = HEADER_SIZE + (long) transactions.size() * RECORD_SIZE;
+
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(transactions.size());
+            output.writeLong(stringHeapOffset);
+            output.write(new byte[HEADER_SIZE - 24]);
+
+            for (Transaction transaction : transactions) {
+                byte[] description = encode(transaction.getDescription());
+                long descriptionOffset = placeString(stringHeapSize, description);
+                byte[] transferReference = encode(transaction.getTransferReference());
+                long transferReferenceOffset = placeString(descriptionOffset + length(description), transferReference);
+                stringHeapSize = transferReferenceOffset + length(transferReference);
+
+                record.clear();
+                record.putLong(transaction.getDate().toEpochSecond(ZoneOffset.UTC))
+                        .putInt(transaction.getDate().getNano())
+                        .put((byte) transaction.getType().ordinal())
+                        .put(new byte[3])
+                        .putLong(transaction.getAmountInMinorUnits())
+                        .putLong(transaction.getBalanceInMinorUnits())
+                        .putLong(descriptionOffset)
+                        .putInt(description == null ? -1 : description.length)
+                        .putInt(transferReference == null ? -1 : transferReference.length)
+                        .putLong(transferReferenceOffset)
+                        .putLong(0);
+                output.write(record.array());
+            }
+
+            // second pass lays out the string heap with the same offsets as computed above
+            long position = 0;
+            for (Transaction transaction : transactions) {
+                position = writeString(output, position, encode(transaction.getDescription()));
+                position = writeString(output, position, encode(transaction.getTransferReference()));
+            }
+            output.flush();
+            channel.force(true);
+        }
+    }
+
+    // Date-ordered view of all transactions, decoded on access
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    // Time range is found by binary search, so only the transactions within it are decoded
+    public List<Transaction> findTransactions(LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type) {
+        List<Transaction> result = transactions;
+        if (startDateTime != null && endDateTime != null) {
+            result = Filter.findTransactionsInTimeRange(result, startDateTime, endDateTime);
+        }
+        return Filter.filterTransactionsByTimeRangeAndType(result, null, null, type);
+    }
+
+    // Prints the same statement as Account would, with balance being the one after the last transaction in the log
+    public void printTransactionHistory(Printer printer, LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type) {
+        List<Transaction> transactionsForPrinting = findTransactions(startDateTime, endDateTime, type);
+        BigDecimal balance = size == 0 ? BigDecimal.ZERO : transactions.get(size - 1).getBalance();
+        printer.printTransactionHistory(
+                transactionsForPrinting,
+                Calculator.calculateSumsOfTransactionsForPrinting(balance, type, transactionsForPrinting),
+                startDateTime,
+                endDateTime);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Transaction decode(int index) {
+        MappedByteBuffer chunk = recordChunks[index / RECORDS_PER_CHUNK];
+        int offset = (index % RECORDS_PER_CHUNK) * RECORD_SIZE;
+
+        LocalDateTime date = LocalDateTime.ofEpochSecond(chunk.getLong(offset), chunk.getInt(offset + 8), ZoneOffset.UTC);
+        TransactionType type = TransactionType.values()[chunk.get(offset + 12)];
+        long amount = chunk.getLong(offset + 16);
+        long balance = chunk.getLong(offset + 24);
+        String description = readString(chunk.getLong(offset + 32), chunk.getInt(offset + 40));
+        String transferReference = readString(chunk.getLong(offset + 48), chunk.getInt(offset + 44));
+        return new Transaction(date, description, amount, balance, type, transferReference);
+    }
+
+    private String readString(long offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        // an empty string takes no room in the heap, which may therefore have no chunk at all
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        stringChunks[(int) (offset / CHUNK_SIZE)].get((int) (offset % CHUNK_SIZE), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static MappedByteBuffer[] mapChunks(FileChannel channel, long offset, long length) throws IOException {
+        MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+        for (int i = 0; i < chunks.length; i++) {
+            long chunkOffset = (long) i * CHUNK_SIZE;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + chunkOffset, Math.min(CHUNK_SIZE, length - chunkOffset));
+        }
+        return chunks;
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    // moves the string to the beginning of the next chunk if it would otherwise cross a chunk boundary
+    private static long placeString(long position, byte[] value) {
+        long chunkEnd = (position / CHUNK_SIZE + 1) * CHUNK_SIZE;
+        return position + length(value) > chunkEnd ? chunkEnd : position;
+    }
+
+    private static long writeString(DataOutputStream output, long position, byte[] value) throws IOException {
+        long offset = placeString(position, value);
+        for (long i = position; i < offset; i++) {
+            output.write(0);
+        }
+        if (value != null) {
+            output.write(value);
+        }
+        return offset + length(value);
+    }
+
+    private class MappedTransactions extends AbstractList<Transaction> implements RandomAccess {
+        @Override
+        public Transaction get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return decode(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
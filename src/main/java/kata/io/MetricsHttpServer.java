@@ -0,0 +1,52 @@
+package kata.io;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import kata.utils.Metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Serves the text dump of the metrics at /metrics, for a scraper or for curl during a load test.
+// Meant to be bound to a local address only, it has no authentication.
+public class MetricsHttpServer implements AutoCloseable {
+    private final HttpServer server;
+
+    private MetricsHttpServer(HttpServer server) {
+        this.server = server;
+    }
+
+    // Port 0 picks a free one, see getPort()
+    public static MetricsHttpServer start(Metrics metrics, InetSocketAddress address) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange -> respond(exchange, metrics));
+        server.start();
+        return new MetricsHttpServer(server);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    static void respond(HttpExchange exchange, Metrics metrics) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = metrics.toText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package kata.io;
+
+// Destination of the one-line notifications about performed and rejected operations which Printer.printLine() sends
+@FunctionalInterface
+public interface NotificationSink {
+    void publish(String notification);
+
+    // Returns once all the notifications published so far have been written out
+    default void flush() {
+    }
+}
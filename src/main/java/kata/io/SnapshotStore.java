@@ -0,0 +1,84 @@
+package kata.io;
+
+import kata.model.Transaction;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Directory of account snapshots. A snapshot is a MappedTransactionLog file with all transactions registered
+// up to a given journal position, which is a part of the file name, so recovery loads the latest snapshot
+// and replays only the journal records appended after that position.
+public class SnapshotStore {
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    // The snapshot becomes visible atomically, older snapshots are deleted afterwards. Its content is synced before
+    // the rename and the rename before the deletion, so a crash at any point leaves at least one complete snapshot.
+    public void write(List<Transaction> transactions, long journalPosition) throws IOException {
+        Path temporaryPath = directory.resolve(fileName(journalPosition) + ".tmp");
+        MappedTransactionLog.write(temporaryPath, transactions);
+        Path snapshotPath = Files.move(
+                temporaryPath, directory.resolve(fileName(journalPosition)), StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+
+        for (Snapshot snapshot : findAll()) {
+            if (!snapshot.path().equals(snapshotPath)) {
+                Files.deleteIfExists(snapshot.path());
+            }
+        }
+    }
+
+    public Optional<Snapshot> findLatest() throws IOException {
+        return findAll().stream().reduce((first, second) -> first.journalPosition() > second.journalPosition() ? first : second);
+    }
+
+    // for falling back to an older snapshot when a newer one cannot be read
+    public List<Snapshot> findAllLatestFirst() throws IOException {
+        List<Snapshot> snapshots = findAll();
+        snapshots.sort(Comparator.comparingLong(Snapshot::journalPosition).reversed());
+        return snapshots;
+    }
+
+    // makes the renaming of the snapshot durable
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private List<Snapshot> findAll() throws IOException {
+        List<Snapshot> snapshots = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                String fileName = path.getFileName().toString();
+                if (fileName.startsWith(PREFIX) && fileName.endsWith(SUFFIX)) {
+                    long journalPosition = Long.parseLong(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+                    snapshots.add(new Snapshot(path, journalPosition));
+                }
+            });
+        }
+        return snapshots;
+    }
+
+    private static String fileName(long journalPosition) {
+        return String.format("%s%020d%s", PREFIX, journalPosition, SUFFIX);
+    }
+
+    public record Snapshot(Path path, long journalPosition) {
+    }
+}
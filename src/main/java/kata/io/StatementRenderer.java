@@ -0,0 +1,228 @@
+package kata.io;
+
+import kata.model.Money;
+import kata.model.SumsOfTransactionsForPrinting;
+import kata.model.Transaction;
+import kata.model.TransactionType;
+import kata.utils.LatencyHistogram;
+import kata.utils.Metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Renders a statement table row by row straight to a Writer, so memory use does not depend on the statement length
+// and the first rows appear before the last ones are even read (transactions may be a lazy view, e.g. of a
+// ColumnarTransactionLedger or a MappedTransactionLog).
+// Column widths are computed up front from the header, the footer and a bounded sample of the first rows.
+// Later descriptions not fitting their column are cut with an ellipsis; amounts always fit, as none of them exceeds
+// the column total, only a balance which did not appear in the sample can stick out of its column.
+public class StatementRenderer {
+    private static final LatencyHistogram RENDER_LATENCY = Metrics.GLOBAL.histogram("statement_render_nanoseconds");
+    private static final int SAMPLE_SIZE = 1000;
+    private static final int PADDING = 3;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final Writer writer;
+    private final List<Transaction> transactions;
+    private final boolean depositColumn;
+    private final boolean withdrawalColumn;
+    private final boolean balanceColumn;
+    // content widths, without padding
+    private final int[] widths;
+
+    private StatementRenderer(Writer writer, List<Transaction> transactions, SumsOfTransactionsForPrinting sums) {
+        this.writer = writer;
+        this.transactions = transactions;
+        this.depositColumn = sums.getSumOfDeposits() != null;
+        this.withdrawalColumn = sums.getSumOfWithdrawals() != null;
+        this.balanceColumn = sums.getBalance() != null;
+        this.widths = new int[2 + (depositColumn ? 1 : 0) + (withdrawalColumn ? 1 : 0) + (balanceColumn ? 1 : 0)];
+    }
+
+    // The same statement as Printer has always printed: title, header, one row per transaction and totals
+    public static void render(Writer writer,
+                              List<Transaction> transactions,
+                              SumsOfTransactionsForPrinting sums,
+                              LocalDateTime startDateTime,
+                              LocalDateTime endDateTime) throws IOException {
+        long start = System.nanoTime();
+        new StatementRenderer(writer, transactions, sums).render(sums, startDateTime, endDateTime);
+        RENDER_LATENCY.recordSince(start);
+    }
+
+    private void render(SumsOfTransactionsForPrinting sums, LocalDateTime startDateTime, LocalDateTime endDateTime) throws IOException {
+        String title = buildTitle(startDateTime, endDateTime);
+        String[] header = buildHeader();
+        String[] footer = buildFooter(sums);
+
+        measure(header);
+        String[] footerTotals = new String[widths.length];
+        System.arraycopy(footer, 1, footerTotals, 2, footer.length - 1);
+        measure(footerTotals);
+        for (int i = 0; i < Math.min(SAMPLE_SIZE, transactions.size()); i++) {
+            measure(buildRow(transactions.get(i)));
+        }
+        // "Totals:" spans both the date and the description column, the title spans all of them
+        widths[1] = Math.max(widths[1], footer[0].length() - widths[0] - 4 * PADDING - 1);
+        widths[1] = Math.max(widths[1], title.length() + 2 * PADDING - totalWidth() + widths[1]);
+
+        writeRule('╔', '═', '═', '═', '╗');
+        writeSpanningRow(title);
+        writeRule('╟', '─', '┬', '┬', '╢');
+        writeRow(header);
+        if (!transactions.isEmpty()) {
+            writeRule('╟', '─', '┼', '┼', '╢');
+            for (Transaction transaction : transactions) {
+                writeRow(buildRow(transaction));
+            }
+        }
+        writeFooter(footer);
+        writer.flush();
+    }
+
+    private String buildTitle(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (transactions.isEmpty() && (startDateTime == null || endDateTime == null)) {
+            return "No transactions registered for a specified transaction type";
+        }
+        LocalDateTime start = startDateTime == null ? transactions.get(0).getDate() : startDateTime;
+        LocalDateTime end = endDateTime == null ? transactions.get(transactions.size() - 1).getDate() : endDateTime;
+        return String.format("Transactions %s - %s", start.format(FORMATTER), end.format(FORMATTER));
+    }
+
+    private String[] buildHeader() {
+        List<String> header = new ArrayList<>(List.of("DATE", "DESCRIPTION"));
+        if (depositColumn) {
+            header.add("DEPOSIT");
+        }
+        if (withdrawalColumn) {
+            header.add("WITHDRAWAL");
+        }
+        if (balanceColumn) {
+            header.add("BALANCE");
+        }
+        return header.toArray(new String[0]);
+    }
+
+    // first cell spans the date and the description column
+    private String[] buildFooter(SumsOfTransactionsForPrinting sums) {
+        List<String> footer = new ArrayList<>(List.of("Totals:"));
+        if (depositColumn) {
+            footer.add(formatTotal(sums.getSumOfDeposits()));
+        }
+        if (withdrawalColumn) {
+            footer.add(formatTotal(sums.getSumOfWithdrawals()));
+        }
+        if (balanceColumn) {
+            footer.add(formatTotal(sums.getBalance()));
+        }
+        return footer.toArray(new String[0]);
+    }
+
+    private String[] buildRow(Transaction transaction) {
+        String[] row = new String[widths.length];
+        int column = 0;
+        row[column++] = transaction.getDate().format(FORMATTER);
+        row[column++] = transaction.getDescription() == null ? "" : transaction.getDescription();
+        boolean deposit = transaction.getType() == TransactionType.DEPOSIT;
+        if (depositColumn) {
+            row[column++] = deposit ? "\u20ac " + Money.format(transaction.getAmountInMinorUnits()) : "";
+        }
+        if (withdrawalColumn) {
+            row[column++] = deposit ? "" : "\u20ac " + Money.format(transaction.getAmountInMinorUnits());
+        }
+        if (balanceColumn) {
+            row[column] = "\u20ac " + Money.format(transaction.getBalanceInMinorUnits());
+        }
+        return row;
+    }
+
+    private static String formatTotal(BigDecimal total) {
+        return "\u20ac " + total.setScale(2, RoundingMode.HALF_DOWN);
+    }
+
+    private void measure(String[] cells) {
+        for (int i = 0; i < widths.length; i++) {
+            if (cells[i] != null) {
+                widths[i] = Math.max(widths[i], cells[i].length());
+            }
+        }
+    }
+
+    // width of the whole table between the outer borders
+    private int totalWidth() {
+        int total = widths.length - 1;
+        for (int width : widths) {
+            total += width + 2 * PADDING;
+        }
+        return total;
+    }
+
+    // firstJoint is the one between the date and the description column, which the footer does not separate
+    private void writeRule(char left, char line, char firstJoint, char joint, char right) throws IOException {
+        writer.write(left);
+        for (int i = 0; i < widths.length; i++) {
+            if (i > 0) {
+                writer.write(i == 1 ? firstJoint : joint);
+            }
+            writeRepeated(line, widths[i] + 2 * PADDING);
+        }
+        writer.write(right);
+        writer.write(System.lineSeparator());
+    }
+
+    private void writeSpanningRow(String text) throws IOException {
+        writer.write('║');
+        writeCentered(text, totalWidth());
+        writer.write('║');
+        writer.write(System.lineSeparator());
+    }
+
+    private void writeRow(String[] cells) throws IOException {
+        writer.write('║');
+        for (int i = 0; i < widths.length; i++) {
+            if (i > 0) {
+                writer.write('│');
+            }
+            String cell = cells[i];
+            // only the description column is ever cut, see the class comment
+            if (i == 1 && cell.length() > widths[i]) {
+                cell = cell.substring(0, widths[i] - 1) + "…";
+            }
+            writeCentered(cell, widths[i] + 2 * PADDING);
+        }
+        writer.write('║');
+        writer.write(System.lineSeparator());
+    }
+
+    private void writeFooter(String[] footer) throws IOException {
+        writeRule('╟', '─', '┴', '┼', '╢');
+        writer.write('║');
+        writeCentered(footer[0], widths[0] + widths[1] + 4 * PADDING + 1);
+        for (int i = 1; i < footer.length; i++) {
+            writer.write('│');
+            writeCentered(footer[i], widths[i + 1] + 2 * PADDING);
+        }
+        writer.write('║');
+        writer.write(System.lineSeparator());
+        writeRule('╚', '═', '═', '╧', '╝');
+    }
+
+    private void writeCentered(String text, int width) throws IOException {
+        int left = Math.max(0, (width - text.length()) / 2);
+        writeRepeated(' ', left);
+        writer.write(text);
+        writeRepeated(' ', Math.max(0, width - left - text.length()));
+    }
+
+    private void writeRepeated(char character, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            writer.write(character);
+        }
+    }
+}
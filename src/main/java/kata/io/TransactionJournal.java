@@ -0,0 +1,278 @@
+package kata.io;
+
+import kata.model.Transaction;
+import kata.model.TransactionType;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead journal of transactions, stored as compact binary records:
+// [int payload length][payload][int CRC32 of payload]
+// Appended records are written by a background thread which fsyncs them in batches (group commit):
+// all records appended while the previous batch was being synced are written and synced together.
+// A failed write stops the journal: the file may end with a partially written batch, which replay cuts off
+// together with everything after it, so no record may be accepted after it. An interrupted flusher stops it as well.
+public class TransactionJournal implements AutoCloseable {
+    // anything longer can only be a corrupted length field
+    private static final int MAX_PAYLOAD_LENGTH = 1 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Thread flusher;
+    private final Object lock = new Object();
+    private List<PendingRecord> pendingRecords = new ArrayList<>();
+    // length the journal file will have once all appended records are written
+    private long appendedLength;
+    private boolean closed;
+    // why the journal has stopped, null while it is running
+    private RuntimeException failure;
+
+    private TransactionJournal(Path path, FileChannel channel, long length) {
+        this.path = path;
+        this.channel = channel;
+        this.appendedLength = length;
+        this.flusher = new Thread(this::flushPendingRecords, "transaction-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // A record torn by a crash during the last write is cut off, so that new records follow the last valid one
+    public static TransactionJournal open(Path path) throws IOException {
+        long validLength = Files.exists(path) ? readRecords(path, 0, new ArrayList<>()) : 0;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return new TransactionJournal(path, channel, validLength);
+    }
+
+    // The record is encoded before returning, so a transaction which cannot be journaled is rejected right away.
+    // Returned future completes once the record is durably stored on disk
+    public CompletableFuture<Void> append(Transaction transaction) {
+        return enqueue(List.of(encode(transaction)));
+    }
+
+    // Either all the transactions are appended or, when any of them cannot be encoded, none of them.
+    // Returned future completes once all the records are durably stored on disk
+    public CompletableFuture<Void> appendAll(List<Transaction> transactions) {
+        List<byte[]> records = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            records.add(encode(transaction));
+        }
+        return enqueue(records);
+    }
+
+    // Returned future completes once all the records appended so far are durably stored on disk
+    public CompletableFuture<Void> sync() {
+        return enqueue(List.of(new byte[0]));
+    }
+
+    // Position right after the last appended record, which is where replay of records appended later starts from
+    public long getAppendedLength() {
+        synchronized (lock) {
+            return appendedLength;
+        }
+    }
+
+    // Meant to be called on startup, before any new record is appended
+    public List<Transaction> replay() throws IOException {
+        return replay(0);
+    }
+
+    // Replays only the records starting at the given position, e.g. the ones appended after a snapshot
+    public List<Transaction> replay(long fromPosition) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        readRecords(path, fromPosition, transactions);
+        return transactions;
+    }
+
+    // records are synced in append order, so the last one being durable means all of them are
+    private CompletableFuture<Void> enqueue(List<byte[]> records) {
+        CompletableFuture<Void> durable = CompletableFuture.completedFuture(null);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Transaction journal has already been closed.");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Transaction journal has stopped.", failure);
+            }
+            for (byte[] record : records) {
+                durable = new CompletableFuture<>();
+                pendingRecords.add(new PendingRecord(record, durable));
+                appendedLength += record.length;
+            }
+            lock.notify();
+        }
+        return durable;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // Records appended before closing are still written and synced
+    @Override
+    public void close() throws IOException, InterruptedException {
+        synchronized (lock) {
+            closed = true;
+            lock.notify();
+        }
+        flusher.join();
+        channel.close();
+    }
+
+    private void flushPendingRecords() {
+        while (true) {
+            List<PendingRecord> batch;
+            synchronized (lock) {
+                while (pendingRecords.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        stop(new IllegalStateException("Transaction journal flusher has been interrupted.", e), List.of());
+                        return;
+                    }
+                }
+                if (pendingRecords.isEmpty()) {
+                    return;
+                }
+                batch = pendingRecords;
+                pendingRecords = new ArrayList<>();
+            }
+            if (!writeBatch(batch)) {
+                return;
+            }
+        }
+    }
+
+    // Returns false when the journal has stopped
+    private boolean writeBatch(List<PendingRecord> batch) {
+        try {
+            int batchLength = batch.stream().mapToInt(pendingRecord -> pendingRecord.record().length).sum();
+            ByteBuffer buffer = ByteBuffer.allocate(batchLength);
+            batch.forEach(pendingRecord -> buffer.put(pendingRecord.record()));
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            batch.forEach(pendingRecord -> pendingRecord.durable().complete(null));
+            return true;
+        } catch (IOException e) {
+            stop(new UncheckedIOException("Writing to transaction journal failed.", e), batch);
+            return false;
+        }
+    }
+
+    // Fails the given batch together with all the records appended in the meantime; later appends are rejected
+    private void stop(RuntimeException exception, List<PendingRecord> batch) {
+        List<PendingRecord> failed = new ArrayList<>(batch);
+        synchronized (lock) {
+            failure = exception;
+            failed.addAll(pendingRecords);
+            pendingRecords = new ArrayList<>();
+        }
+        failed.forEach(pendingRecord -> pendingRecord.durable().completeExceptionally(exception));
+    }
+
+    // Reads valid records into the given list and returns the position right after the last of them
+    private static long readRecords(Path path, long fromPosition, List<Transaction> transactions) throws IOException {
+        long validLength = fromPosition;
+        try (InputStream inputStream = Files.newInputStream(path);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream, 1 << 16))) {
+            inputStream.skipNBytes(fromPosition);
+            while (true) {
+                byte[] payload;
+                try {
+                    int payloadLength = input.readInt();
+                    if (payloadLength <= 0 || payloadLength > MAX_PAYLOAD_LENGTH) {
+                        break;
+                    }
+                    payload = input.readNBytes(payloadLength);
+                    if (payload.length != payloadLength || input.readInt() != checksum(payload)) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                transactions.add(decode(payload));
+                validLength += Integer.BYTES + payload.length + Integer.BYTES;
+            }
+        }
+        return validLength;
+    }
+
+    private static byte[] encode(Transaction transaction) {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream payload = new DataOutputStream(payloadBytes)) {
+            payload.writeLong(transaction.getDate().toEpochSecond(ZoneOffset.UTC));
+            payload.writeInt(transaction.getDate().getNano());
+            payload.writeByte(transaction.getType().ordinal());
+            payload.writeLong(transaction.getAmountInMinorUnits());
+            payload.writeLong(transaction.getBalanceInMinorUnits());
+            writeNullableString(payload, transaction.getDescription());
+            writeNullableString(payload, transaction.getTransferReference());
+        } catch (UTFDataFormatException e) {
+            throw new IllegalArgumentException("Transaction description is too long to be journaled.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] payload = payloadBytes.toByteArray();
+        return ByteBuffer.allocate(Integer.BYTES + payload.length + Integer.BYTES)
+                .putInt(payload.length)
+                .put(payload)
+                .putInt(checksum(payload))
+                .array();
+    }
+
+    private static Transaction decode(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        LocalDateTime date = LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC);
+        TransactionType type = TransactionType.values()[input.readByte()];
+        long amount = input.readLong();
+        long balance = input.readLong();
+        String description = readNullableString(input);
+        String transferReference = readNullableString(input);
+        return new Transaction(date, description, amount, balance, type, transferReference);
+    }
+
+    private static void writeNullableString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private record PendingRecord(byte[] record, CompletableFuture<Void> durable) {
+    }
+}
@@ -1,130 +1,422 @@
 package kata.model;
 
-import org.apache.commons.lang3.SerializationUtils;
+import kata.io.MappedTransactionLog;
 import kata.io.Printer;
-import kata.utils.Calculator;
-import kata.utils.Filter;
+import kata.io.SnapshotStore;
+import kata.io.StatementRenderer;
+import kata.io.TransactionJournal;
+import kata.utils.LatencyHistogram;
+import kata.utils.Metrics;
+import kata.utils.StatementQuery;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+// Thread-safe: operations modifying the account are serialized by a per-account lock (single writer),
+// while readers work on the immutable ledger version published last, so they never block writers
 public class Account {
-    private final List<Transaction> transactions = new ArrayList<>();
-    private BigDecimal balance = BigDecimal.ZERO;
+    private static final AtomicLong LOCK_ORDER_SEQUENCE = new AtomicLong();
+    private static final CompletableFuture<Void> COMPLETED_JOURNAL_WRITE = CompletableFuture.completedFuture(null);
+    private static final int STATEMENT_CACHE_CAPACITY = 64;
+
+    // latencies of the public operations include waiting for the write lock and for the journal
+    private static final LatencyHistogram DEPOSIT_LATENCY = Metrics.GLOBAL.histogram("account_deposit_nanoseconds");
+    private static final LatencyHistogram WITHDRAWAL_LATENCY = Metrics.GLOBAL.histogram("account_withdrawal_nanoseconds");
+    private static final LatencyHistogram FULL_WITHDRAWAL_LATENCY = Metrics.GLOBAL.histogram("account_full_withdrawal_nanoseconds");
+    private static final LatencyHistogram TRANSFER_LATENCY = Metrics.GLOBAL.histogram("account_transfer_nanoseconds");
+    // from reading the ledger until the statement is ready for rendering
+    private static final LatencyHistogram QUERY_LATENCY = Metrics.GLOBAL.histogram("account_statement_query_nanoseconds");
+    private static final LongAdder NON_POSITIVE_AMOUNT_REJECTIONS = Metrics.GLOBAL.counter("account_rejected_non_positive_amount_total");
+    private static final LongAdder INSUFFICIENT_FUNDS_REJECTIONS = Metrics.GLOBAL.counter("account_rejected_insufficient_funds_total");
+    private static final LongAdder NO_FUNDS_REJECTIONS = Metrics.GLOBAL.counter("account_rejected_no_funds_total");
+
+    private final Lock writeLock = new ReentrantLock();
+    // global order in which write locks of different accounts are taken, so that transfers cannot deadlock
+    private final long lockOrder = LOCK_ORDER_SEQUENCE.getAndIncrement();
+    // balance is kept inside the ledger, so that both are always published together
+    private volatile TransactionLedger ledger = TransactionLedger.EMPTY;
+    // daily and monthly summaries of the ledger transactions, published together with the ledger
+    private volatile PeriodRollups rollups = PeriodRollups.EMPTY;
+    // rendered statements of closed periods, see printFilteredTransactions()
+    private final StatementCache statementCache = new StatementCache(STATEMENT_CACHE_CAPACITY);
     private final Printer printer;
+    // null when the account is kept in memory only
+    private final TransactionJournal journal;
 
     // for empty account initialization
     public Account(Printer printer) {
         this.printer = printer;
+        this.journal = null;
     }
 
-    // for initialization with pre-existing transactions (e.g. generated with RandomTransactionsGenerator) and for unit testing purposes
+    // for initialization with pre-existing transactions (e.g. generated with RandomTransactionsGenerator) and for unit testing purposes;
+    // they are bulk imported, so a single summary line is printed instead of a message per transaction
     public Account(List<PreTransaction> preTransactions, Printer printer) {
         this.printer = printer;
-        performPreTransactions(preTransactions);
+        this.journal = null;
+        importPreTransactions(preTransactions);
     }
 
-    private void performPreTransactions(List<PreTransaction> preTransactions) {
-        for (PreTransaction preTransaction : preTransactions) {
-            switch (preTransaction.getType()) {
-                case DEPOSIT -> makeDeposit(
-                        preTransaction.getAmount(),
-                        preTransaction.getDescription(),
-                        preTransaction.getDate()
-                );
-                case WITHDRAWAL -> makeWithdrawal(
-                        preTransaction.getAmount(),
-                        preTransaction.getDescription(),
-                        preTransaction.getDate()
-                );
-                case FULL_WITHDRAWAL -> withdrawAllFunds(preTransaction.getDate());
-                default -> throw new RuntimeException();
+    // for an account with a chosen ledger storage, e.g. ColumnarTransactionLedger.EMPTY for long histories
+    public Account(Printer printer, TransactionLedger initialLedger) {
+        this.printer = printer;
+        this.journal = null;
+        this.ledger = initialLedger;
+        this.rollups = PeriodRollups.EMPTY.addAll(initialLedger.getTransactions());
+    }
+
+    // for a persistent account: transactions and balance are rebuilt by replaying the journal,
+    // then every newly registered transaction is appended to it
+    public Account(Printer printer, TransactionJournal journal) throws IOException {
+        this.printer = printer;
+        this.journal = journal;
+        this.ledger = TransactionLedger.EMPTY.addAll(journal.replay());
+        this.rollups = PeriodRollups.EMPTY.addAll(ledger.getTransactions());
+    }
+
+    // for a persistent account with snapshots: the latest snapshot is loaded and only the journal records
+    // appended after it are replayed, so recovery time does not grow with the age of the account.
+    // A snapshot which cannot be read is skipped for an older one, or for replaying the whole journal.
+    public Account(Printer printer, TransactionJournal journal, SnapshotStore snapshotStore) throws IOException {
+        this.printer = printer;
+        this.journal = journal;
+
+        TransactionLedger recoveredLedger = TransactionLedger.EMPTY;
+        long journalPosition = 0;
+        for (SnapshotStore.Snapshot snapshot : snapshotStore.findAllLatestFirst()) {
+            try (MappedTransactionLog log = MappedTransactionLog.open(snapshot.path())) {
+                recoveredLedger = TransactionLedger.EMPTY.addAll(log.getTransactions());
+                journalPosition = snapshot.journalPosition();
+                break;
+            } catch (IOException | RuntimeException e) {
+                recoveredLedger = TransactionLedger.EMPTY;
+            }
+        }
+        this.ledger = recoveredLedger.addAll(journal.replay(journalPosition));
+        this.rollups = PeriodRollups.EMPTY.addAll(ledger.getTransactions());
+    }
+
+    // Bulk import of historical transactions: the whole batch is validated with the same rules as the single operations
+    // and applied in one pass as a single new ledger version, without a console message per entry.
+    // A single summary line is printed instead and the summary is returned.
+    public ImportSummary importPreTransactions(List<PreTransaction> preTransactions) {
+        ImportSummary summary = new ImportSummary();
+        List<Transaction> imported = new ArrayList<>(preTransactions.size());
+        CompletableFuture<Void> journalWrite = COMPLETED_JOURNAL_WRITE;
+        LocalDateTime[] dates = new LocalDateTime[preTransactions.size()];
+        for (int position = 0; position < dates.length; position++) {
+            LocalDateTime date = preTransactions.get(position).getDate();
+            dates[position] = date == null ? LocalDateTime.now() : date;
+        }
+
+        writeLock.lock();
+        try {
+            // Entries are validated in the given order against the running balances at their dates, including the ones
+            // the entries accepted before changed; the ledger itself is only changed once, by the whole batch
+            TransactionLedger currentLedger = ledger;
+            ImportBalances balances = new ImportBalances(currentLedger, dates);
+
+            for (int position = 0; position < preTransactions.size(); position++) {
+                PreTransaction preTransaction = preTransactions.get(position);
+                long amount = Money.toMinorUnits(preTransaction.getAmount());
+                TransactionType type = preTransaction.getType();
+                long balanceBefore = balances.getBalanceBefore(position);
+                long availableFunds = balances.getLowestBalanceFrom(position);
+
+                ImportSummary.RejectionReason rejectionReason = null;
+                switch (type) {
+                    case DEPOSIT -> rejectionReason = amount <= 0 ? ImportSummary.RejectionReason.NON_POSITIVE_AMOUNT : null;
+                    case WITHDRAWAL -> {
+                        amount = Math.absExact(amount);
+                        if (amount == 0) {
+                            rejectionReason = ImportSummary.RejectionReason.ZERO_AMOUNT;
+                        } else if (availableFunds < amount) {
+                            rejectionReason = ImportSummary.RejectionReason.INSUFFICIENT_FUNDS;
+                        }
+                    }
+                    case FULL_WITHDRAWAL -> {
+                        amount = balanceBefore;
+                        if (amount == 0) {
+                            rejectionReason = ImportSummary.RejectionReason.NO_FUNDS;
+                        } else if (availableFunds < amount) {
+                            rejectionReason = ImportSummary.RejectionReason.INSUFFICIENT_FUNDS;
+                        }
+                    }
+                }
+                if (rejectionReason != null) {
+                    summary.registerRejected(position, rejectionReason);
+                    countRejection(rejectionReason);
+                    continue;
+                }
+
+                long balanceAfter = type == TransactionType.DEPOSIT ? Money.add(balanceBefore, amount) : balanceBefore - amount;
+                String description = type == TransactionType.FULL_WITHDRAWAL ? "Full withdrawal of funds" : preTransaction.getDescription();
+                Transaction transaction = new Transaction(dates[position], description, amount, balanceAfter, type, null);
+                imported.add(transaction);
+                summary.registerImported();
+                balances.accept(position, transaction.getBalanceChangeInMinorUnits());
             }
+
+            // journaled before being published, so that a batch the journal rejects leaves the account unchanged
+            if (journal != null) {
+                journalWrite = journal.appendAll(imported);
+            }
+            if (!imported.isEmpty()) {
+                // sorted once, then merged at once into both the ledger and the rollups
+                List<Transaction> sortedImported = LedgerMerge.sortByDate(imported);
+                publish(currentLedger.addAll(sortedImported), rollups.addAll(sortedImported), sortedImported.get(0).getDate());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        // the journal syncs records in append order, so the last one being durable means all of them are
+        journalWrite.join();
+        printer.printLine(summary.toString());
+        return summary;
+    }
+
+    // same counters as the rejected single operations
+    private static void countRejection(ImportSummary.RejectionReason rejectionReason) {
+        switch (rejectionReason) {
+            case NON_POSITIVE_AMOUNT, ZERO_AMOUNT -> NON_POSITIVE_AMOUNT_REJECTIONS.increment();
+            case INSUFFICIENT_FUNDS -> INSUFFICIENT_FUNDS_REJECTIONS.increment();
+            case NO_FUNDS -> NO_FUNDS_REJECTIONS.increment();
         }
     }
 
-    public void makeDeposit(BigDecimal amount, String description) {
-        makeDeposit(amount, description, null);
+    // operations return whether the transaction has been registered
+    public boolean makeDeposit(BigDecimal amount, String description) {
+        long start = System.nanoTime();
+        boolean registered = makeDeposit(Money.toMinorUnits(amount), description);
+        DEPOSIT_LATENCY.recordSince(start);
+        return registered;
     }
 
-    private void makeDeposit(BigDecimal amount, String description, LocalDateTime date) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    // amounts in euro cents, see Money
+    private boolean makeDeposit(long amount, String description) {
+        if (amount <= 0) {
+            NON_POSITIVE_AMOUNT_REJECTIONS.increment();
             printer.printLine("Transaction amount must be greater than zero.");
-            return;
+            return false;
+        }
+
+        CompletableFuture<Void> journalWrite;
+        writeLock.lock();
+        try {
+            long balance = Money.add(ledger.getBalance(), amount);
+            journalWrite = registerTransaction(amount, balance, description, TransactionType.DEPOSIT, null);
+        } finally {
+            writeLock.unlock();
         }
-        balance = balance.add(amount);
-        registerTransaction(amount, description, TransactionType.DEPOSIT, date);
+        journalWrite.join();
+        return true;
     }
 
-    public void makeWithdrawal(BigDecimal amount, String description) {
-        makeWithdrawal(amount, description, null);
+    public boolean makeWithdrawal(BigDecimal amount, String description) {
+        long start = System.nanoTime();
+        boolean registered = makeWithdrawal(Money.toMinorUnits(amount), description);
+        WITHDRAWAL_LATENCY.recordSince(start);
+        return registered;
     }
 
-    private void makeWithdrawal(BigDecimal amount, String description, LocalDateTime date) {
-        if (amount.equals(BigDecimal.ZERO)) {
+    private boolean makeWithdrawal(long amount, String description) {
+        if (amount == 0) {
+            NON_POSITIVE_AMOUNT_REJECTIONS.increment();
             printer.printLine("Transaction amount must be greater than zero.");
-            return;
+            return false;
         }
 
         // In case that makeWithdrawal() is provided with negative argument and earlier stages of the program did not prevent it
-        if (amount.compareTo(BigDecimal.ZERO) < 0) {
-            amount = amount.negate();
+        if (amount < 0) {
+            amount = Math.negateExact(amount);
         }
-        if (balance.compareTo(amount) < 0) {
-            printer.printLine(String.format(
-                    "There are insufficient funds in your account to proceed with withdrawing requested %s EUR.",
-                    amount.setScale(2, RoundingMode.HALF_DOWN))
-            );
-            return;
+
+        CompletableFuture<Void> journalWrite;
+        writeLock.lock();
+        try {
+            // the funds check and the balance update happen under the same lock, so no concurrent withdrawal can overdraw
+            long balance = ledger.getBalance();
+            if (balance < amount) {
+                INSUFFICIENT_FUNDS_REJECTIONS.increment();
+                printer.printLine(String.format(
+                        "There are insufficient funds in your account to proceed with withdrawing requested %s EUR.",
+                        Money.format(amount))
+                );
+                return false;
+            }
+
+            journalWrite = registerTransaction(amount, balance - amount, description, TransactionType.WITHDRAWAL, null);
+        } finally {
+            writeLock.unlock();
         }
+        journalWrite.join();
+        return true;
+    }
 
-        balance = balance.subtract(amount);
-        registerTransaction(amount, description, TransactionType.WITHDRAWAL, date);
+    public boolean withdrawAllFunds() {
+        long start = System.nanoTime();
+        boolean registered = registerFullWithdrawal();
+        FULL_WITHDRAWAL_LATENCY.recordSince(start);
+        return registered;
     }
 
-    public void withdrawAllFunds() {
-        withdrawAllFunds(null);
+    private boolean registerFullWithdrawal() {
+        CompletableFuture<Void> journalWrite;
+        writeLock.lock();
+        try {
+            long transactionAmount = ledger.getBalance();
+            if (transactionAmount == 0) {
+                NO_FUNDS_REJECTIONS.increment();
+                printer.printLine("You have no funds in your account, therefore requested withdrawal was not proceeded.");
+                return false;
+            }
+
+            journalWrite = registerTransaction(
+                    transactionAmount, 0, "Full withdrawal of funds", TransactionType.FULL_WITHDRAWAL, null);
+        } finally {
+            writeLock.unlock();
+        }
+        journalWrite.join();
+        return true;
     }
 
-    private void withdrawAllFunds(LocalDateTime date) {
-        if (balance.equals(BigDecimal.ZERO)) {
-            printer.printLine("You have no funds in your account, therefore requested withdrawal was not proceeded.");
-            return;
+    // Debits this account and credits the target one atomically: both transactions are registered while holding
+    // the write locks of both accounts and they are linked with the same transfer reference
+    public boolean transferTo(Account target, BigDecimal amount, String description) {
+        if (target == this) {
+            throw new IllegalArgumentException("Funds cannot be transferred to the same account.");
         }
+        long start = System.nanoTime();
+        boolean registered = transferTo(target, Money.toMinorUnits(amount), description);
+        TRANSFER_LATENCY.recordSince(start);
+        return registered;
+    }
+
+    private boolean transferTo(Account target, long transferAmount, String description) {
+        if (transferAmount <= 0) {
+            NON_POSITIVE_AMOUNT_REJECTIONS.increment();
+            printer.printLine("Transaction amount must be greater than zero.");
+            return false;
+        }
+
+        CompletableFuture<Void> debitJournalWrite;
+        CompletableFuture<Void> creditJournalWrite;
+        // locks are always taken in lockOrder, so two opposite transfers between the same accounts cannot deadlock
+        Account firstToLock = lockOrder < target.lockOrder ? this : target;
+        Account secondToLock = firstToLock == this ? target : this;
+        firstToLock.writeLock.lock();
+        try {
+            secondToLock.writeLock.lock();
+            try {
+                long balance = ledger.getBalance();
+                if (balance < transferAmount) {
+                    INSUFFICIENT_FUNDS_REJECTIONS.increment();
+                    printer.printLine(String.format(
+                            "There are insufficient funds in your account to proceed with transferring requested %s EUR.",
+                            Money.format(transferAmount))
+                    );
+                    return false;
+                }
+
+                long targetBalance = Money.add(target.ledger.getBalance(), transferAmount);
+                LocalDateTime date = LocalDateTime.now();
+                String transferReference = generateTransferReference();
+                Transaction debit = new Transaction(
+                        date, description, transferAmount, balance - transferAmount, TransactionType.WITHDRAWAL, transferReference);
+                Transaction credit = new Transaction(
+                        date, description, transferAmount, targetBalance, TransactionType.DEPOSIT, transferReference);
+                // both sides are journaled before either is published, so a rejected record leaves both accounts unchanged
+                debitJournalWrite = journal(debit);
+                creditJournalWrite = target.journal(credit);
+                applyTransaction(debit);
+                target.applyTransaction(credit);
+            } finally {
+                secondToLock.writeLock.unlock();
+            }
+        } finally {
+            firstToLock.writeLock.unlock();
+        }
+        CompletableFuture.allOf(debitJournalWrite, creditJournalWrite).join();
+        return true;
+    }
+
+    // UUID.randomUUID() would make all transferring threads contend on a shared SecureRandom
+    private static String generateTransferReference() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
 
-        BigDecimal transactionAmount = balance;
-        balance = BigDecimal.ZERO;
-        registerTransaction(transactionAmount, "Full withdrawal of funds", TransactionType.FULL_WITHDRAWAL, date);
+    // Must be called while holding writeLock, so that transactions are journaled in the order of registering them.
+    // Returned journal write is awaited after releasing the lock, which lets the journal sync many transactions at once.
+    private CompletableFuture<Void> registerTransaction(long amount,
+                                                        long balance,
+                                                        String description,
+                                                        TransactionType type,
+                                                        String transferReference) {
+        Transaction transaction = new Transaction(LocalDateTime.now(), description, amount, balance, type, transferReference);
+        CompletableFuture<Void> journalWrite = journal(transaction);
+        applyTransaction(transaction);
+        return journalWrite;
     }
 
-    private void registerTransaction(BigDecimal amount, String description, TransactionType type, LocalDateTime date) {
-        LocalDateTime transactionDate = date == null ? LocalDateTime.now() : date;
-        Transaction transaction = new Transaction(transactionDate, description, amount, balance, type);
-        transactions.add(transaction);
+    // Write-ahead: a transaction the journal rejects throws here, before it has been published
+    private CompletableFuture<Void> journal(Transaction transaction) {
+        return journal == null ? COMPLETED_JOURNAL_WRITE : journal.append(transaction);
+    }
+
+    // Must be called while holding writeLock, after the transaction has been journaled
+    private void applyTransaction(Transaction transaction) {
+        publish(ledger.add(transaction), rollups.add(transaction), transaction.getDate());
+        TransactionType type = transaction.getType();
+        long amount = transaction.getAmountInMinorUnits();
+        long balance = transaction.getBalanceInMinorUnits();
         if (type == TransactionType.DEPOSIT) {
             printer.printLine(String.format(
                     "%s EUR has been successfully DEPOSITED on your account. Your account balance is now %s EUR.",
-                    amount.setScale(2, RoundingMode.HALF_DOWN), balance.setScale(2, RoundingMode.HALF_DOWN))
+                    Money.format(amount), Money.format(balance))
             );
         } else if (type == TransactionType.WITHDRAWAL) {
             printer.printLine(String.format(
                     "%s EUR has been successfully WITHDRAWN from your account. Your account balance is now %s EUR.",
-                    amount.setScale(2, RoundingMode.HALF_DOWN), balance.setScale(2, RoundingMode.HALF_DOWN))
+                    Money.format(amount), Money.format(balance))
             );
         } else {
             printer.printLine(String.format(
                     "The full withdrawal of your funds (%s EUR) has been performed. Current balance is 0 EUR.",
-                    amount.setScale(2, RoundingMode.HALF_DOWN))
+                    Money.format(amount))
             );
         }
     }
 
+    // Must be called while holding writeLock; earliestDate is the one of the earliest published transaction
+    private void publish(TransactionLedger newLedger, PeriodRollups newRollups, LocalDateTime earliestDate) {
+        ledger = newLedger;
+        rollups = newRollups;
+        // after publishing, see StatementCache
+        statementCache.invalidateFrom(earliestDate);
+    }
+
     public void printAllTransactionHistory() {
         printFilteredTransactions(null, null, null);
     }
@@ -134,31 +426,83 @@ public class Account {
     }
 
     private void printFilteredTransactions(LocalDate startDate, LocalDate endDate, TransactionType type) {
+        Statement statement = queryStatement(startDate, endDate, type);
+        if (statement.rendered() != null) {
+            printer.printStatement(statement.rendered());
+            return;
+        }
+        printer.printTransactionHistory(
+                statement.transactions(), statement.sums(), statement.startDateTime(), statement.endDateTime());
+    }
 
-        LocalDateTime startDateTime = null;
-        LocalDateTime endDateTime = null;
-
-        if (startDate != null && endDate != null) {
-            startDateTime = LocalDateTime.of(startDate, LocalTime.of(0, 0));
-            endDateTime = LocalDateTime.of(endDate.plusDays(1), LocalTime.of(0, 0));
+    // Renders the same statement as printTransactionsByTimeRangeAndType() to the given writer, e.g. an HTTP response
+    public void writeTransactionsByTimeRangeAndType(Writer writer, LocalDate start, LocalDate end, TransactionType type) throws IOException {
+        Statement statement = queryStatement(start, end, type);
+        if (statement.rendered() != null) {
+            writer.write(statement.rendered());
+            writer.flush();
+            return;
         }
+        StatementRenderer.render(
+                writer, statement.transactions(), statement.sums(), statement.startDateTime(), statement.endDateTime());
+    }
+
+    // rendered is only set for a statement taken from the cache or rendered for it, which is the only field to use then
+    private record Statement(List<Transaction> transactions,
+                             SumsOfTransactionsForPrinting sums,
+                             LocalDateTime startDateTime,
+                             LocalDateTime endDateTime,
+                             String rendered) {
+    }
+
+    private Statement queryStatement(LocalDate startDate, LocalDate endDate, TransactionType type) {
+        LocalDateTime startDateTime = toStartDateTime(startDate, endDate);
+        LocalDateTime endDateTime = toEndDateTime(startDate, endDate);
+        // only the statements of periods which have already ended are cached, see StatementCache
+        StatementCache.Key key = endDateTime != null && endDateTime.isBefore(LocalDateTime.now())
+                ? new StatementCache.Key(startDateTime, endDateTime, type)
+                : null;
+        long start = System.nanoTime();
 
-        List<Transaction> transactionsForPrinting = Filter.filterTransactionsByTimeRangeAndType(
-                transactions,
+        if (key != null) {
+            String cachedStatement = statementCache.get(key, ledger.getBalance());
+            if (cachedStatement != null) {
+                QUERY_LATENCY.recordSince(start);
+                return new Statement(null, null, startDateTime, endDateTime, cachedStatement);
+            }
+        }
+        long cacheGeneration = key == null ? 0 : statementCache.prepare(key);
+        TransactionLedger currentLedger = ledger;
+        StatementQueryResult result = StatementQuery.execute(currentLedger, startDateTime, endDateTime, type);
+        QUERY_LATENCY.recordSince(start);
+        Statement statement = new Statement(
+                result.getTransactions(),
+                result.toSumsOfTransactionsForPrinting(Money.toBigDecimal(currentLedger.getBalance()), type),
                 startDateTime,
                 endDateTime,
-                type);
+                null);
+        if (key == null || result.getCount() > StatementCache.MAX_CACHED_TRANSACTIONS) {
+            return statement;
+        }
 
-        SumsOfTransactionsForPrinting sumsOfTransactionsForPrinting = Calculator.calculateSumsOfTransactionsForPrinting(
-                balance,
-                type,
-                transactionsForPrinting);
+        StringWriter writer = new StringWriter();
+        try {
+            StatementRenderer.render(writer, statement.transactions(), statement.sums(), startDateTime, endDateTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String rendered = writer.toString();
+        statementCache.put(key, rendered, currentLedger.getBalance(), cacheGeneration);
+        return new Statement(null, null, startDateTime, endDateTime, rendered);
+    }
 
-        printer.printTransactionHistory(
-                transactionsForPrinting,
-                sumsOfTransactionsForPrinting,
-                startDateTime,
-                endDateTime);
+    // time range is applied only when both dates are provided, the same way as for printing
+    private static LocalDateTime toStartDateTime(LocalDate startDate, LocalDate endDate) {
+        return startDate != null && endDate != null ? LocalDateTime.of(startDate, LocalTime.of(0, 0)) : null;
+    }
+
+    private static LocalDateTime toEndDateTime(LocalDate startDate, LocalDate endDate) {
+        return startDate != null && endDate != null ? LocalDateTime.of(endDate.plusDays(1), LocalTime.of(0, 0)) : null;
     }
 
     public void printAllWithdrawals() {
@@ -173,12 +517,124 @@ public class Account {
         printFilteredTransactions(start, end, type);
     }
 
-    // for unit testing purposes
+    // totals come straight from the ledger's prefix sums, no transaction list is built
+    public TransactionTotals getTotalsInTimeRange(LocalDate startDate, LocalDate endDate) {
+        return ledger.calculateTotals(toStartDateTime(startDate, endDate), toEndDateTime(startDate, endDate));
+    }
+
+    // Balance right after the latest transaction not after the given instant, found by binary search in the ledger
+    public BigDecimal getBalanceAsOf(LocalDateTime dateTime) {
+        return Money.toBigDecimal(ledger.getBalanceAsOf(dateTime));
+    }
+
+    // Balances as of many instants (e.g. the end of every day) found in a single forward sweep over the ledger
+    public SortedMap<LocalDateTime, BigDecimal> getBalancesAsOf(Collection<LocalDateTime> dateTimes) {
+        List<LocalDateTime> sortedDateTimes = dateTimes.stream().sorted().distinct().toList();
+        long[] balances = ledger.getBalancesAsOf(sortedDateTimes);
+        SortedMap<LocalDateTime, BigDecimal> result = new TreeMap<>();
+        for (int i = 0; i < balances.length; i++) {
+            result.put(sortedDateTimes.get(i), Money.toBigDecimal(balances[i]));
+        }
+        return result;
+    }
+
+    // Deposits, withdrawals and balances of the period (both dates inclusive) combined from the daily and monthly
+    // rollups, so the cost depends on the number of months in the period, not on the number of its transactions
+    public PeriodSummary getPeriodSummary(LocalDate startDate, LocalDate endDate) {
+        validateDates(startDate, endDate);
+        return rollups.summarize(startDate, endDate);
+    }
+
+    // Summaries of the days or months from the one containing startDate to the one containing endDate,
+    // periods without transactions are skipped
+    public List<PeriodSummary> getRollups(RollupPeriod period, LocalDate startDate, LocalDate endDate) {
+        validateDates(startDate, endDate);
+        return rollups.getBuckets(period, startDate, endDate);
+    }
+
+    // Closing balance of every day or month from the one containing startDate to the one containing endDate,
+    // keyed by the first day of the period
+    public SortedMap<LocalDate, BigDecimal> getBalanceSeries(RollupPeriod period, LocalDate startDate, LocalDate endDate) {
+        validateDates(startDate, endDate);
+        long[] closingBalances = rollups.getClosingBalances(period, startDate, endDate);
+        SortedMap<LocalDate, BigDecimal> series = new TreeMap<>();
+        LocalDate periodStart = period.startOf(startDate);
+        for (long closingBalance : closingBalances) {
+            series.put(periodStart, Money.toBigDecimal(closingBalance));
+            periodStart = period.next(periodStart);
+        }
+        return series;
+    }
+
+    private static void validateDates(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Both dates must be provided and start date must not be after end date.");
+        }
+    }
+
+    // Newest-first page of the transactions matching the time range and type (applied as for printing), taken straight
+    // from the ledger without copying or filtering the rest of the history. pageToken is null for the first page.
+    public TransactionPage getTransactionHistoryPage(LocalDate startDate,
+                                                     LocalDate endDate,
+                                                     TransactionType type,
+                                                     int pageSize,
+                                                     String pageToken) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than zero.");
+        }
+
+        List<Transaction> matchingTransactions = ledger.findTransactions(
+                toStartDateTime(startDate, endDate), toEndDateTime(startDate, endDate), type);
+        int toIndex = pageToken == null
+                ? matchingTransactions.size()
+                : PageToken.decode(pageToken).findEndIndex(matchingTransactions);
+        int fromIndex = Math.max(0, toIndex - pageSize);
+
+        List<Transaction> page = new ArrayList<>(matchingTransactions.subList(fromIndex, toIndex));
+        Collections.reverse(page);
+        String nextPageToken = fromIndex == 0 ? null : PageToken.following(matchingTransactions, fromIndex).encode();
+        return new TransactionPage(page, nextPageToken);
+    }
+
+    // writes the current history in the fixed-width format, which can be later read with MappedTransactionLog.open()
+    public void writeTransactionLog(Path path) throws IOException {
+        MappedTransactionLog.write(path, ledger.getTransactions());
+    }
+
+    // Only capturing the ledger version and the matching journal position happens under the write lock,
+    // the snapshot itself is written from that immutable version, so writers are not paused meanwhile
+    public void writeSnapshot(SnapshotStore snapshotStore) throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("Snapshots can only be written for an account with a transaction journal.");
+        }
+
+        TransactionLedger snapshotLedger;
+        long journalPosition;
+        writeLock.lock();
+        try {
+            snapshotLedger = ledger;
+            journalPosition = journal.getAppendedLength();
+        } finally {
+            writeLock.unlock();
+        }
+
+        // journal records covered by the snapshot must be durable before the snapshot replaces them on recovery
+        journal.sync().join();
+        snapshotStore.write(snapshotLedger.getTransactions(), journalPosition);
+    }
+
+    // Consistent, read-only view of all the transactions registered so far, taken in O(1) without copying anything:
+    // the published ledger version never changes, so transactions registered later do not show up in the view
+    public List<Transaction> getTransactionsSnapshot() {
+        return ledger.getTransactions();
+    }
+
+    // for unit testing purposes; transactions are immutable, so copying the list is enough for a deep copy
     public List<Transaction> getTransactionsDeepCopy() {
-        return transactions.stream().map(SerializationUtils::clone).collect(Collectors.toList());
+        return new ArrayList<>(ledger.getTransactions());
     }
 
     public BigDecimal getBalance() {
-        return balance;
+        return Money.toBigDecimal(ledger.getBalance());
     }
 }
@@ -0,0 +1,36 @@
+package kata.model;
+
+import kata.io.Printer;
+import kata.io.SnapshotStore;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Periodically writes snapshots of an account in a background thread, which bounds the journal tail replayed on recovery
+public class AccountSnapshotter implements AutoCloseable {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-snapshotter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AccountSnapshotter(Account account, SnapshotStore snapshotStore, Duration interval, Printer printer) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                account.writeSnapshot(snapshotStore);
+            } catch (IOException | RuntimeException e) {
+                // a failed snapshot only makes the next recovery replay a longer journal tail
+                printer.printLine("Writing account snapshot failed: " + e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,106 @@
+package kata.model;
+
+import kata.io.Printer;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Registry of many accounts keyed by account ID. Accounts are spread over shards by ID and every shard has
+// a single worker thread (lane) executing operations of its accounts in submission order, so operations
+// on accounts of different shards run in parallel, while the ones of a given account never contend.
+public class Bank implements AutoCloseable {
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final ExecutorService[] shards;
+    private final Printer printer;
+
+    public Bank(Printer printer) {
+        this(Runtime.getRuntime().availableProcessors(), printer);
+    }
+
+    public Bank(int numberOfShards, Printer printer) {
+        if (numberOfShards <= 0) {
+            throw new IllegalArgumentException("Number of shards must be greater than zero.");
+        }
+        this.printer = printer;
+        this.shards = new ExecutorService[numberOfShards];
+        for (int i = 0; i < numberOfShards; i++) {
+            String threadName = "bank-shard-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, threadName));
+        }
+    }
+
+    public Account openAccount(String accountId) {
+        Account account = new Account(printer);
+        if (accounts.putIfAbsent(accountId, account) != null) {
+            throw new IllegalArgumentException(String.format("Account %s already exists.", accountId));
+        }
+        return account;
+    }
+
+    public Account getAccount(String accountId) {
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            throw new IllegalArgumentException(String.format("Account %s does not exist.", accountId));
+        }
+        return account;
+    }
+
+    public int getNumberOfAccounts() {
+        return accounts.size();
+    }
+
+    // Same semantics as the respective Account methods; futures complete with whether the transaction has been registered
+    public CompletableFuture<Boolean> makeDeposit(String accountId, BigDecimal amount, String description) {
+        return submit(accountId, account -> account.makeDeposit(amount, description));
+    }
+
+    public CompletableFuture<Boolean> makeWithdrawal(String accountId, BigDecimal amount, String description) {
+        return submit(accountId, account -> account.makeWithdrawal(amount, description));
+    }
+
+    public CompletableFuture<Boolean> withdrawAllFunds(String accountId) {
+        return submit(accountId, Account::withdrawAllFunds);
+    }
+
+    // Executed in the lane of the source account, atomicity across shards is guaranteed by Account.transferTo()
+    public CompletableFuture<Boolean> transfer(String sourceAccountId, String targetAccountId, BigDecimal amount, String description) {
+        Account target;
+        try {
+            target = getAccount(targetAccountId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(sourceAccountId, account -> account.transferTo(target, amount, description));
+    }
+
+    private CompletableFuture<Boolean> submit(String accountId, Function<Account, Boolean> operation) {
+        Account account;
+        try {
+            account = getAccount(accountId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.supplyAsync(() -> operation.apply(account), shardOf(accountId));
+    }
+
+    private ExecutorService shardOf(String accountId) {
+        return shards[Math.floorMod(accountId.hashCode(), shards.length)];
+    }
+
+    // Operations already submitted are completed before the worker threads are stopped
+    @Override
+    public void close() throws InterruptedException {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        for (ExecutorService shard : shards) {
+            shard.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package kata.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ledger keeping transactions decomposed into parallel primitive columns instead of Transaction objects, which takes
+// a few tens of bytes per transaction instead of a few hundred (see LedgerFootprintBenchmark in the benchmarks module).
+// Descriptions are dictionary-encoded, so repeated ones are stored once. The columns are split into the leaves of
+// a LedgerTree, whose aggregates serve time range lookups, sums and running balances without decoding any row;
+// Transaction objects are only decoded when accessed through the returned lists.
+public final class ColumnarTransactionLedger implements TransactionLedger {
+    public static final ColumnarTransactionLedger EMPTY = new ColumnarTransactionLedger(LedgerTree.empty(new ColumnChunk(null, 0)));
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // looked up by timestamps, see toTimestamp()
+    private final LedgerTree<Long> rows;
+
+    private ColumnarTransactionLedger(LedgerTree<Long> rows) {
+        this.rows = rows;
+    }
+
+    // Transactions are normally registered chronologically, so the common case is an append to the latest leaf
+    @Override
+    public ColumnarTransactionLedger add(Transaction transaction) {
+        long timestamp = toTimestamp(transaction.getDate());
+        return new ColumnarTransactionLedger(rowsToAddTo().add(rows.findFirstIndexAfter(timestamp), transaction));
+    }
+
+    // The batch is sorted by date: when it follows the latest transaction, its rows are appended, a back-dated batch
+    // is handled the same way as by ObjectTransactionLedger
+    @Override
+    public TransactionLedger addAll(List<Transaction> transactionsToAdd) {
+        List<Transaction> batch = LedgerMerge.sortByDate(transactionsToAdd);
+        if (batch.isEmpty()) {
+            return this;
+        }
+        if (rows.size() == 0 || rows.findFirstIndexAfter(toTimestamp(batch.get(0).getDate())) == rows.size()) {
+            return new ColumnarTransactionLedger(rowsToAddTo().appendAll(batch));
+        }
+        if (batch.size() < rows.size() / LedgerTree.LEAF_SIZE) {
+            return TransactionLedger.super.addAll(batch);
+        }
+        return EMPTY.addAll(LedgerMerge.merge(getTransactions(), batch));
+    }
+
+    // the dictionary must not be shared between ledgers of different accounts, so the first transaction added
+    // to the shared EMPTY instance starts a new one
+    private LedgerTree<Long> rowsToAddTo() {
+        return rows.size() == 0 ? LedgerTree.empty(new ColumnChunk(new DescriptionDictionary(), 0)) : rows;
+    }
+
+    @Override
+    public List<Transaction> getTransactions() {
+        return rows.getTransactions(0, rows.size());
+    }
+
+    @Override
+    public List<Transaction> getTransactionsOfType(TransactionType type) {
+        return rows.getTransactionsOfType(type, 0, rows.countOfType(type, rows.size()));
+    }
+
+    @Override
+    public List<Transaction> findTransactions(LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type) {
+        if (startDateTime == null || endDateTime == null) {
+            return type == null ? getTransactions() : getTransactionsOfType(type);
+        }
+
+        int fromRow = rows.findFirstIndexNotBefore(toBoundTimestamp(startDateTime));
+        int toRow = Math.max(fromRow, rows.findFirstIndexAfter(toBoundTimestamp(endDateTime)));
+        if (type == null) {
+            return rows.getTransactions(fromRow, toRow);
+        }
+        return rows.getTransactionsOfType(type, rows.countOfType(type, fromRow), rows.countOfType(type, toRow));
+    }
+
+    @Override
+    public long calculateSumOfAmounts(LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type) {
+        if (startDateTime == null || endDateTime == null) {
+            return rows.sumOfType(type, rows.size());
+        }
+        int fromRow = rows.findFirstIndexNotBefore(toBoundTimestamp(startDateTime));
+        int toRow = Math.max(fromRow, rows.findFirstIndexAfter(toBoundTimestamp(endDateTime)));
+        return rows.sumOfType(type, toRow) - rows.sumOfType(type, fromRow);
+    }
+
+    @Override
+    public long getBalance() {
+        return rows.getBalance();
+    }
+
+    @Override
+    public long getBalanceAsOf(LocalDateTime dateTime) {
+        int row = rows.findFirstIndexAfter(toBoundTimestamp(dateTime));
+        return row == 0 ? 0 : rows.getBalanceAfter(row);
+    }
+
+    @Override
+    public long getLowestBalanceFrom(LocalDateTime dateTime) {
+        return rows.getLowestBalanceAfter(rows.findFirstIndexAfter(toBoundTimestamp(dateTime)));
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    // dates between years 1677 and 2262 fit in a long of nanoseconds
+    private static long toTimestamp(LocalDateTime date) {
+        return Math.addExact(Math.multiplyExact(date.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), date.getNano());
+    }
+
+    // query bounds outside of the representable range are clamped to it
+    private static long toBoundTimestamp(LocalDateTime date) {
+        try {
+            return toTimestamp(date);
+        } catch (ArithmeticException e) {
+            return date.getYear() < 1970 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private static LocalDateTime toDate(long timestamp) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(timestamp, NANOS_PER_SECOND), (int) Math.floorMod(timestamp, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    // copies the first size elements of the source array into the target one, leaving a gap at the given index
+    private static <T> T copyWithGap(T source, int size, T target, int index) {
+        System.arraycopy(source, 0, target, 0, index);
+        System.arraycopy(source, index, target, index + 1, size - index);
+        return target;
+    }
+
+    // Columns of the rows of one leaf, besides the amounts, types and running balances kept by the leaf itself
+    private static final class ColumnChunk implements LedgerChunk<Long> {
+        // null in the chunk of the shared EMPTY instance only, which has no rows
+        private final DescriptionDictionary descriptions;
+        // nanoseconds since the epoch, dates being interpreted as UTC
+        private final long[] timestamps;
+        // -1 stands for null
+        private final int[] descriptionIds;
+        // only allocated once a transfer is written to the chunk; the rows before it read null from the new array
+        // the same as they did without it
+        private String[] transferReferences;
+
+        private ColumnChunk(DescriptionDictionary descriptions, int capacity) {
+            this(descriptions, new long[capacity], new int[capacity], null);
+        }
+
+        private ColumnChunk(DescriptionDictionary descriptions,
+                            long[] timestamps,
+                            int[] descriptionIds,
+                            String[] transferReferences) {
+            this.descriptions = descriptions;
+            this.timestamps = timestamps;
+            this.descriptionIds = descriptionIds;
+            this.transferReferences = transferReferences;
+        }
+
+        @Override
+        public int capacity() {
+            return timestamps.length;
+        }
+
+        @Override
+        public boolean isBefore(int row, Long timestamp, boolean inclusive) {
+            return timestamps[row] < timestamp || (inclusive && timestamps[row] == timestamp);
+        }
+
+        @Override
+        public Transaction get(int row, long amount, TransactionType type, long balance) {
+            return new Transaction(
+                    toDate(timestamps[row]),
+                    descriptions.get(descriptionIds[row]),
+                    amount,
+                    balance,
+                    type,
+                    transferReferences == null ? null : transferReferences[row]);
+        }
+
+        @Override
+        public void set(int row, Transaction transaction) {
+            timestamps[row] = toTimestamp(transaction.getDate());
+            descriptionIds[row] = descriptions.idOf(transaction.getDescription());
+            if (transferReferences == null && transaction.getTransferReference() != null) {
+                transferReferences = new String[capacity()];
+            }
+            if (transferReferences != null) {
+                transferReferences[row] = transaction.getTransferReference();
+            }
+        }
+
+        @Override
+        public ColumnChunk copy(int from, int to, int capacity) {
+            return new ColumnChunk(descriptions,
+                    copyRange(timestamps, from, to, new long[capacity]),
+                    copyRange(descriptionIds, from, to, new int[capacity]),
+                    transferReferences == null ? null : copyRange(transferReferences, from, to, new String[capacity]));
+        }
+
+        @Override
+        public ColumnChunk insert(int size, int row, Transaction transaction) {
+            ColumnChunk chunk = new ColumnChunk(descriptions,
+                    copyWithGap(timestamps, size, new long[size + 1], row),
+                    copyWithGap(descriptionIds, size, new int[size + 1], row),
+                    transferReferences == null ? null : copyWithGap(transferReferences, size, new String[size + 1], row));
+            chunk.set(row, transaction);
+            return chunk;
+        }
+
+        private static <T> T copyRange(T source, int from, int to, T target) {
+            System.arraycopy(source, from, target, 0, to - from);
+            return target;
+        }
+    }
+
+    // Append-only, shared by all versions of one ledger: ids handed out to older versions never change
+    private static final class DescriptionDictionary {
+        // accessed by the single writer only
+        private final Map<String, Integer> ids = new HashMap<>();
+        // volatile, so that readers replacing the array see its content
+        private volatile String[] descriptions = new String[16];
+
+        int idOf(String description) {
+            if (description == null) {
+                return -1;
+            }
+            Integer id = ids.get(description);
+            if (id != null) {
+                return id;
+            }
+
+            int newId = ids.size();
+            String[] currentDescriptions = descriptions;
+            if (newId == currentDescriptions.length) {
+                currentDescriptions = Arrays.copyOf(currentDescriptions, newId + (newId >> 1));
+            }
+            currentDescriptions[newId] = description;
+            descriptions = currentDescriptions;
+            ids.put(description, newId);
+            return newId;
+        }
+
+        String get(int id) {
+            return id < 0 ? null : descriptions[id];
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package kata.model;
+
+import kata.utils.Filter;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Running balances seen by the entries of an import validated one by one in the given order, without adding any of
+// them to the ledger. The ledger transactions after the earliest entry get a slot each, interleaved in date order with
+// a slot per entry (after the transactions of the same date, entries of the same date in the given order), the same
+// position adding the entries one by one would give them. Every slot holds the balance after it: an entry not accepted
+// (yet) changes nothing, so its slot holds the balance before it, and accepting it adds its amount to its own slot and
+// all the later ones. A segment tree with lazy additions keeps both the update and the lowest later balance O(log n),
+// so a shuffled batch costs one pass over the later ledger transactions instead of a ledger rebuild per entry.
+final class ImportBalances {
+    private final int[] slots;
+    private final int size;
+    // minimums[node] is the minimum of its range, not including the additions still pending at its ancestors
+    private final long[] minimums;
+    private final long[] pendingAdditions;
+
+    ImportBalances(TransactionLedger ledger, LocalDateTime[] dates) {
+        int count = dates.length;
+        Integer[] positionsByDate = IntStream.range(0, count).boxed()
+                .sorted(Comparator.comparing(position -> dates[position]))
+                .toArray(Integer[]::new);
+        List<Transaction> transactions = ledger.getTransactions();
+        LocalDateTime earliestDate = count == 0 ? null : dates[positionsByDate[0]];
+        List<Transaction> laterTransactions = count == 0
+                ? List.of()
+                : transactions.subList(Filter.findFirstIndexAfter(transactions, earliestDate), transactions.size());
+
+        size = laterTransactions.size() + count;
+        slots = new int[count];
+        long[] balances = new long[size];
+        long balance = count == 0 ? 0 : ledger.getBalanceAsOf(earliestDate);
+        int transactionIndex = 0;
+        int entryIndex = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (entryIndex == count || (transactionIndex < laterTransactions.size()
+                    && !laterTransactions.get(transactionIndex).getDate().isAfter(dates[positionsByDate[entryIndex]]))) {
+                balance = laterTransactions.get(transactionIndex++).getBalanceInMinorUnits();
+            } else {
+                slots[positionsByDate[entryIndex++]] = slot;
+            }
+            balances[slot] = balance;
+        }
+
+        minimums = new long[4 * Math.max(1, size)];
+        pendingAdditions = new long[minimums.length];
+        if (size > 0) {
+            build(1, 0, size - 1, balances);
+        }
+    }
+
+    // balance right before the entry at the given position
+    long getBalanceBefore(int position) {
+        return minimum(1, 0, size - 1, slots[position], slots[position]);
+    }
+
+    // Lowest of the balance before the entry and the ones after every later transaction or accepted entry,
+    // the same as TransactionLedger.getLowestBalanceFrom() after adding the accepted entries
+    long getLowestBalanceFrom(int position) {
+        return minimum(1, 0, size - 1, slots[position], size - 1);
+    }
+
+    void accept(int position, long balanceChange) {
+        add(1, 0, size - 1, slots[position], size - 1, balanceChange);
+    }
+
+    private void build(int node, int low, int high, long[] balances) {
+        if (low == high) {
+            minimums[node] = balances[low];
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        build(2 * node, low, middle, balances);
+        build(2 * node + 1, middle + 1, high, balances);
+        minimums[node] = Math.min(minimums[2 * node], minimums[2 * node + 1]);
+    }
+
+    private long minimum(int node, int low, int high, int from, int to) {
+        if (from <= low && high <= to) {
+            return minimums[node];
+        }
+        int middle = (low + high) >>> 1;
+        long minimum = Long.MAX_VALUE;
+        if (from <= middle) {
+            minimum = minimum(2 * node, low, middle, from, to);
+        }
+        if (to > middle) {
+            minimum = Math.min(minimum, minimum(2 * node + 1, middle + 1, high, from, to));
+        }
+        return Money.add(minimum, pendingAdditions[node]);
+    }
+
+    private void add(int node, int low, int high, int from, int to, long addition) {
+        if (from <= low && high <= to) {
+            minimums[node] = Money.add(minimums[node], addition);
+            pendingAdditions[node] = Money.add(pendingAdditions[node], addition);
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (from <= middle) {
+            add(2 * node, low, middle, from, to, addition);
+        }
+        if (to > middle) {
+            add(2 * node + 1, middle + 1, high, from, to, addition);
+        }
+        minimums[node] = Money.add(Math.min(minimums[2 * node], minimums[2 * node + 1]), pendingAdditions[node]);
+    }
+}
@@ -0,0 +1,65 @@
+package kata.model;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Outcome of Account.importPreTransactions(): how many entries were imported, how many were rejected for each reason
+// and the positions of the first few rejected ones, instead of a message per entry
+@Getter
+public class ImportSummary {
+    private static final int MAX_REJECTED_POSITIONS = 10;
+
+    public enum RejectionReason {
+        NON_POSITIVE_AMOUNT,
+        ZERO_AMOUNT,
+        INSUFFICIENT_FUNDS,
+        NO_FUNDS
+    }
+
+    private int importedCount;
+    private final Map<RejectionReason, Integer> rejectedCounts = new EnumMap<>(RejectionReason.class);
+    // positions within the imported list
+    private final List<Integer> firstRejectedPositions = new ArrayList<>();
+
+    void registerImported() {
+        importedCount++;
+    }
+
+    void registerRejected(int position, RejectionReason reason) {
+        rejectedCounts.merge(reason, 1, Integer::sum);
+        if (firstRejectedPositions.size() < MAX_REJECTED_POSITIONS) {
+            firstRejectedPositions.add(position);
+        }
+    }
+
+    public int getRejectedCount() {
+        return rejectedCounts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public Map<RejectionReason, Integer> getRejectedCounts() {
+        return Collections.unmodifiableMap(rejectedCounts);
+    }
+
+    public List<Integer> getFirstRejectedPositions() {
+        return Collections.unmodifiableList(firstRejectedPositions);
+    }
+
+    @Override
+    public String toString() {
+        if (rejectedCounts.isEmpty()) {
+            return String.format("Imported %d transactions, none rejected.", importedCount);
+        }
+        String reasons = rejectedCounts.entrySet().stream()
+                .map(entry -> entry.getKey() + ": " + entry.getValue())
+                .collect(Collectors.joining(", "));
+        String positions = firstRejectedPositions.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        return String.format("Imported %d transactions, rejected %d (%s), first rejected at positions: %s.",
+                importedCount, getRejectedCount(), reasons, positions);
+    }
+}
@@ -0,0 +1,22 @@
+package kata.model;
+
+// Rows of one leaf of a LedgerTree, stored the way the ledger implementation keeps them, and looked up by dates of
+// type K. The amounts, types and running balances are kept by the leaf itself. Rows are only written while the chunk
+// is not shared yet, or beyond the size of the leaves already reading it.
+interface LedgerChunk<K> {
+    int capacity();
+
+    // whether the date of the row is before the given one, or not after it when inclusive
+    boolean isBefore(int row, K dateTime, boolean inclusive);
+
+    // the transaction of the row, with the amount and type the leaf keeps for it and its current running balance
+    Transaction get(int row, long amount, TransactionType type, long balance);
+
+    void set(int row, Transaction transaction);
+
+    // rows [from, to) at the start of a new chunk with room for capacity rows
+    LedgerChunk<K> copy(int from, int to, int capacity);
+
+    // the first size rows with the transaction inserted at the given row, in a new chunk sized exactly
+    LedgerChunk<K> insert(int size, int row, Transaction transaction);
+}
@@ -0,0 +1,42 @@
+package kata.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Adding a batch to a ledger in a single pass: the batch is sorted by date and merged with the ledger transactions,
+// so a ledger is rebuilt once per batch instead of once per back-dated transaction
+final class LedgerMerge {
+    private LedgerMerge() {
+    }
+
+    // Copies the batch, which also decodes a lazy view only once. The sort is stable, so transactions of the same date
+    // keep the order in which adding them one by one would have put them.
+    static List<Transaction> sortByDate(List<Transaction> batch) {
+        List<Transaction> sorted = new ArrayList<>(batch);
+        sorted.sort(Comparator.comparing(Transaction::getDate));
+        return sorted;
+    }
+
+    // Both lists are date-ordered. A batch transaction goes after the ledger ones of the same date, as add() puts it,
+    // and the running balances of all the merged transactions are recomputed from the opening balance.
+    static List<Transaction> merge(List<Transaction> ledgerTransactions, List<Transaction> sortedBatch) {
+        List<Transaction> merged = new ArrayList<>(ledgerTransactions.size() + sortedBatch.size());
+        Transaction first = ledgerTransactions.isEmpty() ? sortedBatch.get(0) : ledgerTransactions.get(0);
+        long balance = first.getBalanceInMinorUnits() - first.getBalanceChangeInMinorUnits();
+        int ledgerIndex = 0;
+        int batchIndex = 0;
+        while (ledgerIndex < ledgerTransactions.size() || batchIndex < sortedBatch.size()) {
+            Transaction transaction;
+            if (batchIndex == sortedBatch.size() || (ledgerIndex < ledgerTransactions.size()
+                    && !ledgerTransactions.get(ledgerIndex).getDate().isAfter(sortedBatch.get(batchIndex).getDate()))) {
+                transaction = ledgerTransactions.get(ledgerIndex++);
+            } else {
+                transaction = sortedBatch.get(batchIndex++);
+            }
+            balance = Money.add(balance, transaction.getBalanceChangeInMinorUnits());
+            merged.add(transaction.withBalanceInMinorUnits(balance));
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,671 @@
+package kata.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Immutable, date-ordered rows of a ledger, kept in a persistent B-tree of small leaves: a back-dated transaction
+// copies only the leaf it goes into and the branches above it, O(log n) nodes, instead of whole arrays.
+// Every node keeps aggregates of its rows: the balance change, the lowest running balance relative to the balance
+// before it, and the count and sum of amounts per transaction type; branches keep them as running totals over their
+// children. Running balances, sums per type and the lowest later balance are then combined from one node per level,
+// without ever recomputing the rows after an insertion.
+// The latest leaf is kept apart from the tree, the same way RollupSeries keeps its latest bucket: appending writes
+// into its spare capacity, which the previous version never reads, therefore each version stays a consistent snapshot
+// as long as there is a single writer appending to the latest one. The tree only changes once the latest leaf is full.
+final class LedgerTree<K> {
+    static final int LEAF_SIZE = 64;
+    static final int BRANCH_SIZE = 32;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    // the leaves before the latest one
+    private final Node<K> body;
+    private final Leaf<K> tail;
+    // balance before the first transaction, set by the first transaction added so that its own balance stays
+    // the one it came with
+    private final long openingBalance;
+
+    private LedgerTree(Node<K> body, Leaf<K> tail, long openingBalance) {
+        this.body = body;
+        this.tail = tail;
+        this.openingBalance = openingBalance;
+    }
+
+    // The chunk is the storage the leaves copy, it is never written itself as it has no capacity
+    static <K> LedgerTree<K> empty(LedgerChunk<K> emptyChunk) {
+        Leaf<K> emptyLeaf = Leaf.empty(emptyChunk);
+        return new LedgerTree<>(emptyLeaf, emptyLeaf, 0);
+    }
+
+    // Inserts the transaction at the given row, which is an append when it is the size
+    LedgerTree<K> add(int row, Transaction transaction) {
+        long newOpeningBalance = size() == 0
+                ? transaction.getBalanceInMinorUnits() - transaction.getBalanceChangeInMinorUnits()
+                : openingBalance;
+        if (row == size()) {
+            if (tail.size < LEAF_SIZE) {
+                return new LedgerTree<>(body, tail.append(transaction), newOpeningBalance);
+            }
+            Leaf<K> newTail = Leaf.empty(tail.chunk.copy(0, 0, LEAF_SIZE)).append(transaction);
+            return new LedgerTree<>(push(body, tail), newTail, newOpeningBalance);
+        }
+        if (row >= body.size) {
+            List<Leaf<K>> leaves = tail.insert(row - body.size, transaction);
+            return leaves.size() == 1
+                    ? new LedgerTree<>(body, leaves.get(0), newOpeningBalance)
+                    : new LedgerTree<>(push(body, leaves.get(0)), leaves.get(1), newOpeningBalance);
+        }
+        return new LedgerTree<>(join(body.insert(row, transaction)), tail, newOpeningBalance);
+    }
+
+    // Appends date-ordered transactions not preceding the latest one
+    LedgerTree<K> appendAll(List<Transaction> batch) {
+        LedgerTree<K> tree = this;
+        for (Transaction transaction : batch) {
+            tree = tree.add(tree.size(), transaction);
+        }
+        return tree;
+    }
+
+    int size() {
+        return body.size + tail.size;
+    }
+
+    // with its current running balance
+    Transaction get(int row) {
+        return leafOf(row).get(row);
+    }
+
+    long getBalance() {
+        return openingBalance + body.balanceChange + tail.balanceChange;
+    }
+
+    // balance after the first `count` transactions
+    long getBalanceAfter(int count) {
+        return openingBalance + (count <= body.size
+                ? body.balanceBefore(count)
+                : body.balanceChange + tail.balanceBefore(count - body.size));
+    }
+
+    // lowest of the balances after the first `count` transactions and after each of the later ones
+    long getLowestBalanceAfter(int count) {
+        long lowestLater = count < body.size
+                ? Math.min(body.lowestFrom(count), shift(tail.lowestChange, body.balanceChange))
+                : shift(tail.lowestFrom(count - body.size), body.balanceChange);
+        return Math.min(getBalanceAfter(count), shift(lowestLater, openingBalance));
+    }
+
+    int findFirstIndexAfter(K dateTime) {
+        return countBefore(dateTime, true);
+    }
+
+    int findFirstIndexNotBefore(K dateTime) {
+        return countBefore(dateTime, false);
+    }
+
+    // appends are the common case, so the latest row is checked first
+    private int countBefore(K dateTime, boolean inclusive) {
+        if (tail.size == 0 || !tail.chunk.isBefore(0, dateTime, inclusive)) {
+            return body.countBefore(dateTime, inclusive);
+        }
+        return tail.chunk.isBefore(tail.size - 1, dateTime, inclusive)
+                ? size()
+                : body.size + tail.countBefore(dateTime, inclusive);
+    }
+
+    // how many of the first `count` transactions are of the type, WITHDRAWAL also matching FULL_WITHDRAWAL ones,
+    // the same way Filter.isTransactionOfType() does
+    int countOfType(TransactionType type, int count) {
+        return count <= body.size
+                ? body.countOfType(type, count)
+                : body.typeCounts[type.ordinal()] + tail.countOfType(type, count - body.size);
+    }
+
+    // sum of amounts of the transactions of the type among the first `count` ones
+    long sumOfType(TransactionType type, int count) {
+        return count <= body.size
+                ? body.sumOfType(type, count)
+                : body.typeAmounts[type.ordinal()] + tail.sumOfType(type, count - body.size);
+    }
+
+    List<Transaction> getTransactions(int fromRow, int toRow) {
+        return new Rows(fromRow, toRow);
+    }
+
+    // from the given position to the given one among the transactions of the type
+    List<Transaction> getTransactionsOfType(TransactionType type, int from, int to) {
+        return new RowsOfType(type, from, to);
+    }
+
+    private LeafPosition<K> leafOf(int row) {
+        return row < body.size
+                ? body.leafOf(row, 0, 0, openingBalance)
+                : tail.leafOf(row - body.size, body.size, 0, openingBalance + body.balanceChange);
+    }
+
+    private LeafPosition<K> leafOfType(TransactionType type, int position) {
+        int bodyCount = body.typeCounts[type.ordinal()];
+        return position < bodyCount
+                ? body.leafOfType(type, position, 0, 0, openingBalance)
+                : tail.leafOfType(type, position - bodyCount, body.size, bodyCount, openingBalance + body.balanceChange);
+    }
+
+    // Adds a full leaf after the last one of the body
+    private static <K> Node<K> push(Node<K> body, Leaf<K> leaf) {
+        return body.size == 0 ? leaf : join(body.push(leaf));
+    }
+
+    // A node split in two gets a new root above both
+    private static <K> Node<K> join(List<? extends Node<K>> nodes) {
+        return nodes.size() == 1 ? nodes.get(0) : Branch.of(nodes.toArray(Branch.newNodes(nodes.size())));
+    }
+
+    // an empty node's lowest balance stays Long.MAX_VALUE
+    private static long shift(long lowestChange, long balance) {
+        return lowestChange == Long.MAX_VALUE ? lowestChange : lowestChange + balance;
+    }
+
+    private static boolean isOfType(int rowType, TransactionType type) {
+        return rowType == type.ordinal()
+                || (type == TransactionType.WITHDRAWAL && rowType == TransactionType.FULL_WITHDRAWAL.ordinal());
+    }
+
+    private abstract static class Node<K> {
+        final int size;
+        final long balanceChange;
+        // lowest of the running balances after each row, relative to the balance before the first one;
+        // Long.MAX_VALUE when there are no rows
+        final long lowestChange;
+        // indexed by TransactionType.ordinal(), see countOfType()
+        final int[] typeCounts;
+        final long[] typeAmounts;
+        // chunk holding the first row, which date lookups compare with
+        final LedgerChunk<K> first;
+
+        Node(int size, long balanceChange, long lowestChange, int[] typeCounts, long[] typeAmounts, LedgerChunk<K> first) {
+            this.size = size;
+            this.balanceChange = balanceChange;
+            this.lowestChange = lowestChange;
+            this.typeCounts = typeCounts;
+            this.typeAmounts = typeAmounts;
+            this.first = first;
+        }
+
+        // the leaf holding the row, with where it starts; the other arguments are where this node starts
+        abstract LeafPosition<K> leafOf(int row, int firstRow, int firstPosition, long balanceBefore);
+
+        // the same for the transaction at the given position among the ones of the type
+        abstract LeafPosition<K> leafOfType(TransactionType type, int position, int firstRow, int firstPosition, long balanceBefore);
+
+        // balance change of the first `count` rows
+        abstract long balanceBefore(int count);
+
+        // lowest of the running balances after the rows from the given one on, relative to the balance before the node
+        abstract long lowestFrom(int row);
+
+        abstract int countBefore(K dateTime, boolean inclusive);
+
+        abstract int countOfType(TransactionType type, int count);
+
+        abstract long sumOfType(TransactionType type, int count);
+
+        // one node, or two when it had to be split
+        abstract List<? extends Node<K>> insert(int row, Transaction transaction);
+
+        abstract List<Node<K>> push(Leaf<K> leaf);
+    }
+
+    private static final class Leaf<K> extends Node<K> {
+        final LedgerChunk<K> chunk;
+        // balances[row] is the running balance after the row relative to the balance before the leaf, types[row] is
+        // the TransactionType.ordinal() of the row; both have the capacity of the chunk and are shared the same way
+        final long[] balances;
+        final byte[] types;
+
+        private Leaf(LedgerChunk<K> chunk, long[] balances, byte[] types, int size,
+                     long lowestChange, int[] typeCounts, long[] typeAmounts) {
+            super(size, size == 0 ? 0 : balances[size - 1], lowestChange, typeCounts, typeAmounts, chunk);
+            this.chunk = chunk;
+            this.balances = balances;
+            this.types = types;
+        }
+
+        static <K> Leaf<K> empty(LedgerChunk<K> chunk) {
+            return of(chunk, new long[chunk.capacity()], new byte[chunk.capacity()], 0);
+        }
+
+        // over the first size rows
+        private static <K> Leaf<K> of(LedgerChunk<K> chunk, long[] balances, byte[] types, int size) {
+            int[] typeCounts = new int[TYPES.length];
+            long[] typeAmounts = new long[TYPES.length];
+            long lowest = Long.MAX_VALUE;
+            for (int row = 0; row < size; row++) {
+                lowest = Math.min(lowest, balances[row]);
+                count(types[row], amount(balances, types, row), typeCounts, typeAmounts);
+            }
+            return new Leaf<>(chunk, balances, types, size, lowest, typeCounts, typeAmounts);
+        }
+
+        // Writes the row after the last one in place, unless the chunk is full; leaves grow up to LEAF_SIZE rows
+        Leaf<K> append(Transaction transaction) {
+            LedgerChunk<K> newChunk = chunk;
+            long[] newBalances = balances;
+            byte[] newTypes = types;
+            if (size == chunk.capacity()) {
+                int newCapacity = Math.min(LEAF_SIZE, Math.max(8, size * 2));
+                newChunk = chunk.copy(0, size, newCapacity);
+                newBalances = Arrays.copyOf(balances, newCapacity);
+                newTypes = Arrays.copyOf(types, newCapacity);
+            }
+            newChunk.set(size, transaction);
+            long balance = Money.add(balanceChange, transaction.getBalanceChangeInMinorUnits());
+            newBalances[size] = balance;
+            newTypes[size] = (byte) transaction.getType().ordinal();
+            int[] newTypeCounts = typeCounts.clone();
+            long[] newTypeAmounts = typeAmounts.clone();
+            count(newTypes[size], transaction.getAmountInMinorUnits(), newTypeCounts, newTypeAmounts);
+            return new Leaf<>(newChunk, newBalances, newTypes, size + 1,
+                    Math.min(lowestChange, balance), newTypeCounts, newTypeAmounts);
+        }
+
+        // the balances after the new row change by its amount
+        @Override
+        List<Leaf<K>> insert(int row, Transaction transaction) {
+            int newSize = size + 1;
+            long balanceChange = transaction.getBalanceChangeInMinorUnits();
+            long[] newBalances = new long[newSize];
+            byte[] newTypes = new byte[newSize];
+            System.arraycopy(balances, 0, newBalances, 0, row);
+            newBalances[row] = Money.add(row == 0 ? 0 : balances[row - 1], balanceChange);
+            for (int i = row; i < size; i++) {
+                newBalances[i + 1] = Money.add(balances[i], balanceChange);
+            }
+            System.arraycopy(types, 0, newTypes, 0, row);
+            newTypes[row] = (byte) transaction.getType().ordinal();
+            System.arraycopy(types, row, newTypes, row + 1, size - row);
+
+            LedgerChunk<K> newChunk = chunk.insert(size, row, transaction);
+            if (newSize <= LEAF_SIZE) {
+                return List.of(of(newChunk, newBalances, newTypes, newSize));
+            }
+            int half = newSize / 2;
+            return List.of(slice(newChunk, newBalances, newTypes, 0, half), slice(newChunk, newBalances, newTypes, half, newSize));
+        }
+
+        // rows [from, to), with their balances made relative to the balance before the first of them
+        private static <K> Leaf<K> slice(LedgerChunk<K> chunk, long[] balances, byte[] types, int from, int to) {
+            long[] newBalances = Arrays.copyOfRange(balances, from, to);
+            if (from > 0) {
+                for (int row = 0; row < newBalances.length; row++) {
+                    newBalances[row] -= balances[from - 1];
+                }
+            }
+            return of(chunk.copy(from, to, to - from), newBalances, Arrays.copyOfRange(types, from, to), to - from);
+        }
+
+        @Override
+        List<Node<K>> push(Leaf<K> leaf) {
+            return List.of(this, leaf);
+        }
+
+        @Override
+        LeafPosition<K> leafOf(int row, int firstRow, int firstPosition, long balanceBefore) {
+            return new LeafPosition<>(this, firstRow, firstPosition, balanceBefore);
+        }
+
+        @Override
+        LeafPosition<K> leafOfType(TransactionType type, int position, int firstRow, int firstPosition, long balanceBefore) {
+            return new LeafPosition<>(this, firstRow, firstPosition, balanceBefore);
+        }
+
+        Transaction get(int row, long balanceBefore) {
+            return chunk.get(row, amount(balances, types, row), TYPES[types[row]], balanceBefore + balances[row]);
+        }
+
+        @Override
+        long balanceBefore(int count) {
+            return count == 0 ? 0 : balances[count - 1];
+        }
+
+        @Override
+        long lowestFrom(int row) {
+            long lowest = Long.MAX_VALUE;
+            for (int i = row; i < size; i++) {
+                lowest = Math.min(lowest, balances[i]);
+            }
+            return lowest;
+        }
+
+        @Override
+        int countBefore(K dateTime, boolean inclusive) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (chunk.isBefore(middle, dateTime, inclusive)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        int countOfType(TransactionType type, int count) {
+            int matching = 0;
+            for (int row = 0; row < count; row++) {
+                if (isOfType(types[row], type)) {
+                    matching++;
+                }
+            }
+            return matching;
+        }
+
+        @Override
+        long sumOfType(TransactionType type, int count) {
+            long sum = 0;
+            for (int row = 0; row < count; row++) {
+                if (isOfType(types[row], type)) {
+                    sum = Money.add(sum, amount(balances, types, row));
+                }
+            }
+            return sum;
+        }
+
+        // row of the transaction at the given position among the ones of the type, searching from the given row
+        // at the given position on
+        int rowOfType(TransactionType type, int position, int fromRow, int fromPosition) {
+            for (int row = fromRow; row < size; row++) {
+                if (isOfType(types[row], type) && fromPosition++ == position) {
+                    return row;
+                }
+            }
+            throw new IndexOutOfBoundsException(position);
+        }
+
+        // the amount is the difference of the running balances, with the sign of the type
+        private static long amount(long[] balances, byte[] types, int row) {
+            long balanceChange = row == 0 ? balances[0] : balances[row] - balances[row - 1];
+            return types[row] == TransactionType.DEPOSIT.ordinal() ? balanceChange : -balanceChange;
+        }
+
+        private static void count(int rowType, long amount, int[] typeCounts, long[] typeAmounts) {
+            for (TransactionType type : TYPES) {
+                if (isOfType(rowType, type)) {
+                    typeCounts[type.ordinal()]++;
+                    typeAmounts[type.ordinal()] = Money.add(typeAmounts[type.ordinal()], amount);
+                }
+            }
+        }
+    }
+
+    private static final class Branch<K> extends Node<K> {
+        // none of them empty, all of the same height
+        final Node<K>[] children;
+        // rowsBefore[child] is the number of rows of the children before it, hence it has one element more;
+        // the same for the other running totals
+        final int[] rowsBefore;
+        final long[] balancesBefore;
+        // indexed by TransactionType.ordinal(), then by child
+        final int[][] typeCountsBefore;
+        final long[][] typeAmountsBefore;
+        // lowestFrom[child] is the lowest of the running balances after the rows of the children from it on,
+        // relative to the balance before the branch
+        final long[] lowestFrom;
+
+        private Branch(Node<K>[] children, int[] rowsBefore, long[] balancesBefore,
+                       int[][] typeCountsBefore, long[][] typeAmountsBefore, long[] lowestFrom) {
+            super(rowsBefore[children.length], balancesBefore[children.length], lowestFrom[0],
+                    totals(typeCountsBefore, children.length), totals(typeAmountsBefore, children.length), children[0].first);
+            this.children = children;
+            this.rowsBefore = rowsBefore;
+            this.balancesBefore = balancesBefore;
+            this.typeCountsBefore = typeCountsBefore;
+            this.typeAmountsBefore = typeAmountsBefore;
+            this.lowestFrom = lowestFrom;
+        }
+
+        static <K> Branch<K> of(Node<K>[] children) {
+            int count = children.length;
+            int[] rowsBefore = new int[count + 1];
+            long[] balancesBefore = new long[count + 1];
+            int[][] typeCountsBefore = new int[TYPES.length][count + 1];
+            long[][] typeAmountsBefore = new long[TYPES.length][count + 1];
+            for (int child = 0; child < count; child++) {
+                rowsBefore[child + 1] = rowsBefore[child] + children[child].size;
+                balancesBefore[child + 1] = Money.add(balancesBefore[child], children[child].balanceChange);
+                for (int type = 0; type < TYPES.length; type++) {
+                    typeCountsBefore[type][child + 1] = typeCountsBefore[type][child] + children[child].typeCounts[type];
+                    typeAmountsBefore[type][child + 1] = Money.add(typeAmountsBefore[type][child], children[child].typeAmounts[type]);
+                }
+            }
+            long[] lowestFrom = new long[count];
+            long lowest = Long.MAX_VALUE;
+            for (int child = count - 1; child >= 0; child--) {
+                lowest = Math.min(lowest, balancesBefore[child] + children[child].lowestChange);
+                lowestFrom[child] = lowest;
+            }
+            return new Branch<>(children, rowsBefore, balancesBefore, typeCountsBefore, typeAmountsBefore, lowestFrom);
+        }
+
+        @Override
+        LeafPosition<K> leafOf(int row, int firstRow, int firstPosition, long balanceBefore) {
+            int child = childOf(rowsBefore, row);
+            return children[child].leafOf(row - rowsBefore[child],
+                    firstRow + rowsBefore[child], firstPosition, balanceBefore + balancesBefore[child]);
+        }
+
+        @Override
+        LeafPosition<K> leafOfType(TransactionType type, int position, int firstRow, int firstPosition, long balanceBefore) {
+            int[] positionsBefore = typeCountsBefore[type.ordinal()];
+            int child = childOf(positionsBefore, position);
+            return children[child].leafOfType(type, position - positionsBefore[child], firstRow + rowsBefore[child],
+                    firstPosition + positionsBefore[child], balanceBefore + balancesBefore[child]);
+        }
+
+        @Override
+        long balanceBefore(int count) {
+            int child = childOf(rowsBefore, count);
+            return balancesBefore[child] + children[child].balanceBefore(count - rowsBefore[child]);
+        }
+
+        @Override
+        long lowestFrom(int row) {
+            int child = childOf(rowsBefore, row);
+            if (row == rowsBefore[child]) {
+                return lowestFrom[child];
+            }
+            long lowest = balancesBefore[child] + children[child].lowestFrom(row - rowsBefore[child]);
+            return child + 1 < children.length ? Math.min(lowest, lowestFrom[child + 1]) : lowest;
+        }
+
+        // the rows before the date are in the children whose first row is before it
+        @Override
+        int countBefore(K dateTime, boolean inclusive) {
+            int low = 0;
+            int high = children.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (children[middle].first.isBefore(0, dateTime, inclusive)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low == 0 ? 0 : rowsBefore[low - 1] + children[low - 1].countBefore(dateTime, inclusive);
+        }
+
+        @Override
+        int countOfType(TransactionType type, int count) {
+            int child = childOf(rowsBefore, count);
+            return typeCountsBefore[type.ordinal()][child] + children[child].countOfType(type, count - rowsBefore[child]);
+        }
+
+        @Override
+        long sumOfType(TransactionType type, int count) {
+            int child = childOf(rowsBefore, count);
+            return typeAmountsBefore[type.ordinal()][child] + children[child].sumOfType(type, count - rowsBefore[child]);
+        }
+
+        @Override
+        List<Node<K>> insert(int row, Transaction transaction) {
+            int child = childOf(rowsBefore, row);
+            return replace(child, children[child].insert(row - rowsBefore[child], transaction));
+        }
+
+        @Override
+        List<Node<K>> push(Leaf<K> leaf) {
+            int last = children.length - 1;
+            return replace(last, children[last].push(leaf));
+        }
+
+        // A branch overflowing by its last child keeps the others, so that appended leaves fill the branches;
+        // otherwise it is split in halves
+        private List<Node<K>> replace(int child, List<? extends Node<K>> nodes) {
+            Node<K>[] newChildren = newNodes(children.length - 1 + nodes.size());
+            System.arraycopy(children, 0, newChildren, 0, child);
+            for (int i = 0; i < nodes.size(); i++) {
+                newChildren[child + i] = nodes.get(i);
+            }
+            System.arraycopy(children, child + 1, newChildren, child + nodes.size(), children.length - child - 1);
+            if (newChildren.length <= BRANCH_SIZE) {
+                return List.of(of(newChildren));
+            }
+            int split = child == children.length - 1 ? BRANCH_SIZE : newChildren.length / 2;
+            return List.of(
+                    of(Arrays.copyOfRange(newChildren, 0, split)),
+                    of(Arrays.copyOfRange(newChildren, split, newChildren.length)));
+        }
+
+        // The child holding the given row (or position among the ones of a type), given the running totals of rows
+        // (or positions) before each child; a count of all the rows ends in the last child
+        private int childOf(int[] before, int row) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (before[middle] <= row) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+
+        private static int[] totals(int[][] before, int count) {
+            int[] totals = new int[before.length];
+            for (int type = 0; type < before.length; type++) {
+                totals[type] = before[type][count];
+            }
+            return totals;
+        }
+
+        private static long[] totals(long[][] before, int count) {
+            long[] totals = new long[before.length];
+            for (int type = 0; type < before.length; type++) {
+                totals[type] = before[type][count];
+            }
+            return totals;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <K> Node<K>[] newNodes(int length) {
+            return (Node<K>[]) new Node[length];
+        }
+    }
+
+    // A leaf together with the row it starts at, the position among the transactions of a type it starts at (when
+    // found by position) and the balance before it
+    private record LeafPosition<K>(Leaf<K> leaf, int firstRow, int firstPosition, long balanceBefore) {
+        boolean contains(int row) {
+            return row >= firstRow && row < firstRow + leaf.size;
+        }
+
+        boolean containsOfType(TransactionType type, int position) {
+            return position >= firstPosition && position < firstPosition + leaf.typeCounts[type.ordinal()];
+        }
+
+        Transaction get(int row) {
+            return leaf.get(row - firstRow, balanceBefore);
+        }
+    }
+
+    // The views remember the leaf they read last, so that reading the rows in order descends the tree once per leaf.
+    // Views shared by threads may overwrite each other's leaf, which is harmless as each one is immutable.
+    private final class Rows extends AbstractList<Transaction> implements RandomAccess {
+        private final int fromRow;
+        private final int toRow;
+        private LeafPosition<K> lastLeaf;
+
+        private Rows(int fromRow, int toRow) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        public Transaction get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int row = fromRow + index;
+            LeafPosition<K> leaf = lastLeaf;
+            if (leaf == null || !leaf.contains(row)) {
+                leaf = leafOf(row);
+                lastLeaf = leaf;
+            }
+            return leaf.get(row);
+        }
+
+        @Override
+        public int size() {
+            return toRow - fromRow;
+        }
+    }
+
+    // Besides the leaf, it remembers the row of the position read last, so that the next position is searched from it
+    private final class RowsOfType extends AbstractList<Transaction> implements RandomAccess {
+        private final TransactionType type;
+        private final int from;
+        private final int to;
+        private LastRead<K> lastRead;
+
+        private RowsOfType(TransactionType type, int from, int to) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Transaction get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int position = from + index;
+            LastRead<K> last = lastRead;
+            LeafPosition<K> leaf;
+            int row;
+            if (last != null && last.leaf().containsOfType(type, position) && last.position() <= position) {
+                leaf = last.leaf();
+                row = leaf.leaf().rowOfType(type, position - leaf.firstPosition(), last.row(), last.position() - leaf.firstPosition());
+            } else {
+                leaf = leafOfType(type, position);
+                row = leaf.leaf().rowOfType(type, position - leaf.firstPosition(), 0, 0);
+            }
+            lastRead = new LastRead<>(leaf, position, row);
+            return leaf.get(leaf.firstRow() + row);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    // row within the leaf of the transaction at the position
+    private record LastRead<K>(LeafPosition<K> leaf, int position, int row) {
+    }
+}
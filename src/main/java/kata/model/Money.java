@@ -0,0 +1,43 @@
+package kata.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amounts are kept internally as a number of euro cents in a primitive long, which makes the arithmetic
+// on the transaction path allocation-free. BigDecimal is used only at the API edges, conversion of which
+// (as well as all the arithmetic) is overflow-checked and throws ArithmeticException instead of wrapping around.
+public final class Money {
+    private static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    // an amount with a fraction of a cent is rejected rather than silently rounded, e.g. to a zero deposit
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount.scale() > SCALE && amount.stripTrailingZeros().scale() > SCALE) {
+            throw new IllegalArgumentException("Amount must not have a fraction of a cent: " + amount.toPlainString());
+        }
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    // always with the scale of cents, e.g. 2000 EUR comes back as 2000.00
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    // same text as BigDecimal.setScale(2, RoundingMode.HALF_DOWN).toString(), without creating BigDecimal
+    public static String format(long minorUnits) {
+        long units = minorUnits / 100;
+        long cents = Math.abs(minorUnits % 100);
+        String sign = minorUnits < 0 && units == 0 ? "-" : "";
+        return sign + units + (cents < 10 ? ".0" : ".") + cents;
+    }
+
+    public static long add(long first, long second) {
+        return Math.addExact(first, second);
+    }
+
+    public static long subtract(long first, long second) {
+        return Math.subtractExact(first, second);
+    }
+}
@@ -0,0 +1,148 @@
+package kata.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Ledger keeping Transaction objects in the leaves of a LedgerTree, whose per-type counts serve as a secondary index
+// by transaction type, so that time range lookups can use binary search instead of scanning the whole history
+public final class ObjectTransactionLedger implements TransactionLedger {
+    public static final ObjectTransactionLedger EMPTY = new ObjectTransactionLedger(LedgerTree.empty(new TransactionChunk(0)));
+
+    private final LedgerTree<LocalDateTime> rows;
+
+    private ObjectTransactionLedger(LedgerTree<LocalDateTime> rows) {
+        this.rows = rows;
+    }
+
+    // Transactions are normally registered chronologically, so the common case is an append to the latest leaf;
+    // a back-dated transaction gets the running balance at its position and only changes the aggregates of the
+    // O(log n) nodes above it, which the balances of all the later transactions are derived from
+    @Override
+    public ObjectTransactionLedger add(Transaction transaction) {
+        return new ObjectTransactionLedger(rows.add(rows.findFirstIndexAfter(transaction.getDate()), transaction));
+    }
+
+    // The batch is sorted by date: when it follows the latest transaction, it is appended; a back-dated batch is inserted
+    // transaction by transaction while that copies fewer nodes than merging it with the ledger transactions and
+    // rebuilding the tree once, see LedgerMerge
+    @Override
+    public TransactionLedger addAll(List<Transaction> transactionsToAdd) {
+        List<Transaction> batch = LedgerMerge.sortByDate(transactionsToAdd);
+        if (batch.isEmpty()) {
+            return this;
+        }
+        if (rows.size() == 0 || !batch.get(0).getDate().isBefore(rows.get(rows.size() - 1).getDate())) {
+            return new ObjectTransactionLedger(rows.appendAll(batch));
+        }
+        if (batch.size() < rows.size() / LedgerTree.LEAF_SIZE) {
+            return TransactionLedger.super.addAll(batch);
+        }
+        return EMPTY.addAll(LedgerMerge.merge(getTransactions(), batch));
+    }
+
+    @Override
+    public List<Transaction> getTransactions() {
+        return rows.getTransactions(0, rows.size());
+    }
+
+    @Override
+    public List<Transaction> getTransactionsOfType(TransactionType type) {
+        return rows.getTransactionsOfType(type, 0, rows.countOfType(type, rows.size()));
+    }
+
+    @Override
+    public List<Transaction> findTransactions(LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type) {
+        if (startDateTime == null || endDateTime == null) {
+            return type == null ? getTransactions() : getTransactionsOfType(type);
+        }
+
+        int fromRow = rows.findFirstIndexNotBefore(startDateTime);
+        int toRow = Math.max(fromRow, rows.findFirstIndexAfter(endDateTime));
+        if (type == null) {
+            return rows.getTransactions(fromRow, toRow);
+        }
+        return rows.getTransactionsOfType(type, rows.countOfType(type, fromRow), rows.countOfType(type, toRow));
+    }
+
+    @Override
+    public long calculateSumOfAmounts(LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type) {
+        if (startDateTime == null || endDateTime == null) {
+            return rows.sumOfType(type, rows.size());
+        }
+        int fromRow = rows.findFirstIndexNotBefore(startDateTime);
+        int toRow = Math.max(fromRow, rows.findFirstIndexAfter(endDateTime));
+        return rows.sumOfType(type, toRow) - rows.sumOfType(type, fromRow);
+    }
+
+    @Override
+    public long getBalance() {
+        return rows.getBalance();
+    }
+
+    @Override
+    public long getBalanceAsOf(LocalDateTime dateTime) {
+        int row = rows.findFirstIndexAfter(dateTime);
+        return row == 0 ? 0 : rows.getBalanceAfter(row);
+    }
+
+    @Override
+    public long getLowestBalanceFrom(LocalDateTime dateTime) {
+        return rows.getLowestBalanceAfter(rows.findFirstIndexAfter(dateTime));
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    // The stored balances are the ones the transactions were added with, which later insertions make stale;
+    // a new Transaction is only created when handing out one whose stored balance is stale
+    private static final class TransactionChunk implements LedgerChunk<LocalDateTime> {
+        private final Transaction[] transactions;
+
+        private TransactionChunk(int capacity) {
+            this(new Transaction[capacity]);
+        }
+
+        private TransactionChunk(Transaction[] transactions) {
+            this.transactions = transactions;
+        }
+
+        @Override
+        public int capacity() {
+            return transactions.length;
+        }
+
+        @Override
+        public boolean isBefore(int row, LocalDateTime dateTime, boolean inclusive) {
+            LocalDateTime date = transactions[row].getDate();
+            return date.isBefore(dateTime) || (inclusive && date.isEqual(dateTime));
+        }
+
+        @Override
+        public Transaction get(int row, long amount, TransactionType type, long balance) {
+            return transactions[row].withBalanceInMinorUnits(balance);
+        }
+
+        @Override
+        public void set(int row, Transaction transaction) {
+            transactions[row] = transaction;
+        }
+
+        @Override
+        public TransactionChunk copy(int from, int to, int capacity) {
+            Transaction[] newTransactions = new Transaction[capacity];
+            System.arraycopy(transactions, from, newTransactions, 0, to - from);
+            return new TransactionChunk(newTransactions);
+        }
+
+        @Override
+        public TransactionChunk insert(int size, int row, Transaction transaction) {
+            Transaction[] newTransactions = new Transaction[size + 1];
+            System.arraycopy(transactions, 0, newTransactions, 0, row);
+            newTransactions[row] = transaction;
+            System.arraycopy(transactions, row, newTransactions, row + 1, size - row);
+            return new TransactionChunk(newTransactions);
+        }
+    }
+}
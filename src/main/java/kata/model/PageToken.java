@@ -0,0 +1,53 @@
+package kata.model;
+
+import kata.utils.Filter;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+// Continuation token of paginated history: the date of the oldest transaction returned so far and how many
+// transactions of exactly that date have already been returned. Unlike a plain index, it keeps pointing
+// at the same place when newer transactions are registered between fetching the pages.
+record PageToken(LocalDateTime date, int transactionsReturnedAtDate) {
+    private static final int LENGTH = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    // token for the page following the one which ended (going back in time) at fromIndex of the date-ordered list
+    static PageToken following(List<Transaction> sortedTransactions, int fromIndex) {
+        LocalDateTime date = sortedTransactions.get(fromIndex).getDate();
+        return new PageToken(date, Filter.findFirstIndexAfter(sortedTransactions, date) - fromIndex);
+    }
+
+    // index right after the last transaction of the page this token stands for, in the date-ordered list
+    int findEndIndex(List<Transaction> sortedTransactions) {
+        int afterDate = Filter.findFirstIndexAfter(sortedTransactions, date);
+        return Math.max(Filter.findFirstIndexNotBefore(sortedTransactions, date), afterDate - transactionsReturnedAtDate);
+    }
+
+    String encode() {
+        ByteBuffer bytes = ByteBuffer.allocate(LENGTH)
+                .putLong(date.toEpochSecond(ZoneOffset.UTC))
+                .putInt(date.getNano())
+                .putInt(transactionsReturnedAtDate);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    static PageToken decode(String token) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (bytes.remaining() != LENGTH) {
+                throw new IllegalArgumentException("Invalid page token.");
+            }
+            LocalDateTime date = LocalDateTime.ofEpochSecond(bytes.getLong(), bytes.getInt(), ZoneOffset.UTC);
+            int transactionsReturnedAtDate = bytes.getInt();
+            if (transactionsReturnedAtDate < 0) {
+                throw new IllegalArgumentException("Invalid page token.");
+            }
+            return new PageToken(date, transactionsReturnedAtDate);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page token.", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package kata.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Daily and monthly summaries of the transactions, updated as transactions are registered, so that the summary of
+// any period combines a few buckets: days up to the first whole month, whole months, and days after the last one.
+final class PeriodRollups {
+    static final PeriodRollups EMPTY = new PeriodRollups(RollupSeries.empty(RollupPeriod.DAY), RollupSeries.empty(RollupPeriod.MONTH));
+
+    private final RollupSeries days;
+    private final RollupSeries months;
+
+    private PeriodRollups(RollupSeries days, RollupSeries months) {
+        this.days = days;
+        this.months = months;
+    }
+
+    PeriodRollups add(Transaction transaction) {
+        return new PeriodRollups(days.add(transaction), months.add(transaction));
+    }
+
+    // sorted by date once, so that each series merges the whole batch in a single pass
+    PeriodRollups addAll(List<Transaction> transactions) {
+        List<Transaction> sortedTransactions = LedgerMerge.sortByDate(transactions);
+        return new PeriodRollups(days.addAll(sortedTransactions), months.addAll(sortedTransactions));
+    }
+
+    List<PeriodSummary> getBuckets(RollupPeriod period, LocalDate startDate, LocalDate endDate) {
+        return series(period).getBuckets(startDate, endDate);
+    }
+
+    PeriodSummary summarize(LocalDate startDate, LocalDate endDate) {
+        LocalDate firstWholeMonth = startDate.getDayOfMonth() == 1 ? startDate : startDate.withDayOfMonth(1).plusMonths(1);
+        LocalDate afterLastWholeMonth = endDate.plusDays(1).withDayOfMonth(1);
+        if (!firstWholeMonth.isBefore(afterLastWholeMonth)) {
+            return days.summarize(startDate, endDate);
+        }
+
+        PeriodSummary summary = months.summarize(firstWholeMonth, afterLastWholeMonth.minusDays(1));
+        if (startDate.isBefore(firstWholeMonth)) {
+            summary = days.summarize(startDate, firstWholeMonth.minusDays(1)).combinedWith(summary);
+        }
+        if (!endDate.isBefore(afterLastWholeMonth)) {
+            summary = summary.combinedWith(days.summarize(afterLastWholeMonth, endDate));
+        }
+        return summary;
+    }
+
+    long[] getClosingBalances(RollupPeriod period, LocalDate startDate, LocalDate endDate) {
+        return series(period).getClosingBalances(startDate, endDate);
+    }
+
+    private RollupSeries series(RollupPeriod period) {
+        return period == RollupPeriod.DAY ? days : months;
+    }
+}
@@ -0,0 +1,75 @@
+package kata.model;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Totals of the transactions of a period (both dates inclusive) together with the balance before and after them.
+// Balances are the running sum of all deposits and withdrawals in date order, so they are correct for periods
+// preceding back-dated transactions as well.
+@Value
+public class PeriodSummary {
+    LocalDate startDate;
+    LocalDate endDate;
+    // in euro cents, see Money
+    long sumOfDepositsInMinorUnits;
+    long sumOfWithdrawalsInMinorUnits;
+    int numberOfDeposits;
+    int numberOfWithdrawals;
+    long openingBalanceInMinorUnits;
+    long closingBalanceInMinorUnits;
+
+    static PeriodSummary empty(LocalDate startDate, LocalDate endDate, long balance) {
+        return new PeriodSummary(startDate, endDate, 0, 0, 0, 0, balance, balance);
+    }
+
+    PeriodSummary plus(Transaction transaction) {
+        long amount = transaction.getAmountInMinorUnits();
+        if (transaction.getType() == TransactionType.DEPOSIT) {
+            return new PeriodSummary(startDate, endDate,
+                    Money.add(sumOfDepositsInMinorUnits, amount), sumOfWithdrawalsInMinorUnits,
+                    numberOfDeposits + 1, numberOfWithdrawals,
+                    openingBalanceInMinorUnits, Money.add(closingBalanceInMinorUnits, amount));
+        }
+        return new PeriodSummary(startDate, endDate,
+                sumOfDepositsInMinorUnits, Money.add(sumOfWithdrawalsInMinorUnits, amount),
+                numberOfDeposits, numberOfWithdrawals + 1,
+                openingBalanceInMinorUnits, closingBalanceInMinorUnits - amount);
+    }
+
+    // the same period after a transaction has been inserted before it
+    PeriodSummary shiftedBy(long balanceChange) {
+        return new PeriodSummary(startDate, endDate,
+                sumOfDepositsInMinorUnits, sumOfWithdrawalsInMinorUnits,
+                numberOfDeposits, numberOfWithdrawals,
+                Money.add(openingBalanceInMinorUnits, balanceChange), Money.add(closingBalanceInMinorUnits, balanceChange));
+    }
+
+    // later is the summary of the period directly following this one
+    PeriodSummary combinedWith(PeriodSummary later) {
+        return new PeriodSummary(startDate, later.endDate,
+                Money.add(sumOfDepositsInMinorUnits, later.sumOfDepositsInMinorUnits),
+                Money.add(sumOfWithdrawalsInMinorUnits, later.sumOfWithdrawalsInMinorUnits),
+                numberOfDeposits + later.numberOfDeposits,
+                numberOfWithdrawals + later.numberOfWithdrawals,
+                openingBalanceInMinorUnits,
+                later.closingBalanceInMinorUnits);
+    }
+
+    public BigDecimal getSumOfDeposits() {
+        return Money.toBigDecimal(sumOfDepositsInMinorUnits);
+    }
+
+    public BigDecimal getSumOfWithdrawals() {
+        return Money.toBigDecimal(sumOfWithdrawalsInMinorUnits);
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return Money.toBigDecimal(openingBalanceInMinorUnits);
+    }
+
+    public BigDecimal getClosingBalance() {
+        return Money.toBigDecimal(closingBalanceInMinorUnits);
+    }
+}
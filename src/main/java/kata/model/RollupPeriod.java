@@ -0,0 +1,21 @@
+package kata.model;
+
+import java.time.LocalDate;
+
+public enum RollupPeriod {
+    DAY,
+    MONTH;
+
+    LocalDate startOf(LocalDate date) {
+        return this == DAY ? date : date.withDayOfMonth(1);
+    }
+
+    LocalDate next(LocalDate periodStart) {
+        return this == DAY ? periodStart.plusDays(1) : periodStart.plusMonths(1);
+    }
+
+    // consecutive periods have consecutive keys
+    long keyOf(LocalDate date) {
+        return this == DAY ? date.toEpochDay() : date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+}
@@ -0,0 +1,211 @@
+package kata.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Immutable, date-ordered summaries (buckets) of the periods having transactions, one per period.
+// Only the latest bucket changes when transactions are registered chronologically, so it is kept apart from
+// the earlier ones, whose arrays are appended to and shared with the previous version the same way LedgerTree
+// appends to its latest leaf. A back-dated transaction makes a new copy, as it changes the balances of all
+// the following buckets.
+final class RollupSeries {
+    private final RollupPeriod period;
+    private final long[] keys;
+    private final PeriodSummary[] earlierBuckets;
+    private final int earlierCount;
+    // null when there are no transactions
+    private final PeriodSummary latestBucket;
+
+    private RollupSeries(RollupPeriod period, long[] keys, PeriodSummary[] earlierBuckets, int earlierCount, PeriodSummary latestBucket) {
+        this.period = period;
+        this.keys = keys;
+        this.earlierBuckets = earlierBuckets;
+        this.earlierCount = earlierCount;
+        this.latestBucket = latestBucket;
+    }
+
+    static RollupSeries empty(RollupPeriod period) {
+        return new RollupSeries(period, new long[0], new PeriodSummary[0], 0, null);
+    }
+
+    RollupSeries add(Transaction transaction) {
+        LocalDate date = transaction.getDate().toLocalDate();
+        long key = period.keyOf(date);
+        if (latestBucket == null) {
+            return new RollupSeries(period, keys, earlierBuckets, 0, newBucket(date, 0).plus(transaction));
+        }
+
+        long latestKey = keyAt(earlierCount);
+        if (key == latestKey) {
+            return new RollupSeries(period, keys, earlierBuckets, earlierCount, latestBucket.plus(transaction));
+        }
+        if (key > latestKey) {
+            long[] newKeys = keys;
+            PeriodSummary[] newEarlierBuckets = earlierBuckets;
+            if (earlierCount == earlierBuckets.length) {
+                int newCapacity = Math.max(8, earlierCount + (earlierCount >> 1));
+                newKeys = Arrays.copyOf(keys, newCapacity);
+                newEarlierBuckets = Arrays.copyOf(earlierBuckets, newCapacity);
+            }
+            newKeys[earlierCount] = latestKey;
+            newEarlierBuckets[earlierCount] = latestBucket;
+            PeriodSummary bucket = newBucket(date, latestBucket.getClosingBalanceInMinorUnits()).plus(transaction);
+            return new RollupSeries(period, newKeys, newEarlierBuckets, earlierCount + 1, bucket);
+        }
+        return insert(key, date, transaction);
+    }
+
+    private RollupSeries insert(long key, LocalDate date, Transaction transaction) {
+        int size = size();
+        int index = findFirstIndexNotBefore(key);
+        boolean existingBucket = keyAt(index) == key;
+
+        List<PeriodSummary> buckets = new ArrayList<>(size + 1);
+        long[] newKeys = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            buckets.add(bucketAt(i));
+            newKeys[i] = keyAt(i);
+        }
+        if (existingBucket) {
+            buckets.set(index, buckets.get(index).plus(transaction));
+        } else {
+            long balanceBefore = index == 0 ? 0 : buckets.get(index - 1).getClosingBalanceInMinorUnits();
+            buckets.add(index, newBucket(date, balanceBefore).plus(transaction));
+            System.arraycopy(newKeys, index, newKeys, index + 1, size - index);
+            newKeys[index] = key;
+        }
+        long balanceChange = transaction.getType() == TransactionType.DEPOSIT
+                ? transaction.getAmountInMinorUnits()
+                : -transaction.getAmountInMinorUnits();
+        for (int i = index + 1; i < buckets.size(); i++) {
+            buckets.set(i, buckets.get(i).shiftedBy(balanceChange));
+        }
+
+        int newEarlierCount = buckets.size() - 1;
+        PeriodSummary[] newEarlierBuckets = buckets.subList(0, newEarlierCount).toArray(new PeriodSummary[0]);
+        return new RollupSeries(period, newKeys, newEarlierBuckets, newEarlierCount, buckets.get(newEarlierCount));
+    }
+
+    // Expects a date-ordered batch. Unless it only adds to the latest bucket or after it, the buckets are merged with
+    // the ones of the batch in a single pass, instead of copying all of them for every back-dated transaction.
+    RollupSeries addAll(List<Transaction> sortedBatch) {
+        if (sortedBatch.isEmpty() || latestBucket == null
+                || period.keyOf(sortedBatch.get(0).getDate().toLocalDate()) >= keyAt(earlierCount)) {
+            RollupSeries series = this;
+            for (Transaction transaction : sortedBatch) {
+                series = series.add(transaction);
+            }
+            return series;
+        }
+
+        int size = size();
+        List<PeriodSummary> buckets = new ArrayList<>(size + 1);
+        long[] newKeys = new long[size + sortedBatch.size()];
+        long balanceChange = 0;
+        int index = 0;
+        int batchIndex = 0;
+        while (index < size || batchIndex < sortedBatch.size()) {
+            LocalDate date = batchIndex < sortedBatch.size() ? sortedBatch.get(batchIndex).getDate().toLocalDate() : null;
+            long key = date == null ? Long.MAX_VALUE : period.keyOf(date);
+            PeriodSummary bucket;
+            if (keyAt(index) < key) {
+                key = keyAt(index);
+                bucket = bucketAt(index++).shiftedBy(balanceChange);
+            } else {
+                long balanceBefore = buckets.isEmpty() ? 0 : buckets.get(buckets.size() - 1).getClosingBalanceInMinorUnits();
+                bucket = keyAt(index) == key ? bucketAt(index++).shiftedBy(balanceChange) : newBucket(date, balanceBefore);
+                while (batchIndex < sortedBatch.size()
+                        && period.keyOf(sortedBatch.get(batchIndex).getDate().toLocalDate()) == key) {
+                    Transaction transaction = sortedBatch.get(batchIndex++);
+                    bucket = bucket.plus(transaction);
+                    balanceChange = Money.add(balanceChange, transaction.getBalanceChangeInMinorUnits());
+                }
+            }
+            newKeys[buckets.size()] = key;
+            buckets.add(bucket);
+        }
+
+        int newEarlierCount = buckets.size() - 1;
+        PeriodSummary[] newEarlierBuckets = buckets.subList(0, newEarlierCount).toArray(new PeriodSummary[0]);
+        return new RollupSeries(period, newKeys, newEarlierBuckets, newEarlierCount, buckets.get(newEarlierCount));
+    }
+
+    // Buckets of the periods from the one containing startDate to the one containing endDate, empty ones excluded
+    List<PeriodSummary> getBuckets(LocalDate startDate, LocalDate endDate) {
+        int fromIndex = findFirstIndexNotBefore(period.keyOf(startDate));
+        int toIndex = findFirstIndexNotBefore(period.keyOf(endDate) + 1);
+        List<PeriodSummary> buckets = new ArrayList<>(toIndex - fromIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            buckets.add(bucketAt(i));
+        }
+        return buckets;
+    }
+
+    // Combined summary of the periods from the one starting at startDate to the one ending at endDate
+    PeriodSummary summarize(LocalDate startDate, LocalDate endDate) {
+        int fromIndex = findFirstIndexNotBefore(period.keyOf(startDate));
+        int toIndex = findFirstIndexNotBefore(period.keyOf(endDate) + 1);
+        PeriodSummary summary = PeriodSummary.empty(startDate, startDate, balanceBefore(fromIndex));
+        for (int i = fromIndex; i < toIndex; i++) {
+            summary = summary.combinedWith(bucketAt(i));
+        }
+        return summary.combinedWith(PeriodSummary.empty(endDate, endDate, summary.getClosingBalanceInMinorUnits()));
+    }
+
+    // Closing balance of every period from the one containing startDate to the one containing endDate,
+    // carried over through the periods without transactions
+    long[] getClosingBalances(LocalDate startDate, LocalDate endDate) {
+        long firstKey = period.keyOf(startDate);
+        int count = (int) (period.keyOf(endDate) - firstKey + 1);
+        long[] balances = new long[Math.max(0, count)];
+        int index = findFirstIndexNotBefore(firstKey);
+        long balance = balanceBefore(index);
+        for (int i = 0; i < balances.length; i++) {
+            if (index < size() && keyAt(index) == firstKey + i) {
+                balance = bucketAt(index++).getClosingBalanceInMinorUnits();
+            }
+            balances[i] = balance;
+        }
+        return balances;
+    }
+
+    private long balanceBefore(int index) {
+        return index == 0 ? 0 : bucketAt(index - 1).getClosingBalanceInMinorUnits();
+    }
+
+    private PeriodSummary newBucket(LocalDate date, long openingBalance) {
+        LocalDate start = period.startOf(date);
+        return PeriodSummary.empty(start, period.next(start).minusDays(1), openingBalance);
+    }
+
+    private int findFirstIndexNotBefore(long key) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyAt(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int size() {
+        return latestBucket == null ? 0 : earlierCount + 1;
+    }
+
+    private long keyAt(int index) {
+        if (index < earlierCount) {
+            return keys[index];
+        }
+        return index == earlierCount && latestBucket != null ? period.keyOf(latestBucket.getStartDate()) : Long.MAX_VALUE;
+    }
+
+    private PeriodSummary bucketAt(int index) {
+        return index < earlierCount ? earlierBuckets[index] : latestBucket;
+    }
+}
@@ -0,0 +1,68 @@
+package kata.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Rendered statements of closed periods, the ones which ended before they were rendered, keyed by time range and type.
+// Transactions are registered as of now, so only a back-dated or imported one can change such a statement: it drops
+// the statements of the periods ending at or after its date, all the others stay cached, nothing is ever evicted.
+// Open periods are not cached, so the entries only grow with the distinct closed periods asked for; beyond capacity
+// new statements are simply not cached, and neither are the ones of more than MAX_CACHED_TRANSACTIONS transactions.
+// Lookups take no lock; the single writer of the account only touches the cache for a transaction dated within
+// a period some statement has been cached (or is being rendered) for.
+final class StatementCache {
+    static final int MAX_CACHED_TRANSACTIONS = 4096;
+
+    private final int capacity;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // end of the latest period any statement has been cached or is being rendered for
+    private final AtomicReference<LocalDateTime> latestEnd = new AtomicReference<>(LocalDateTime.MIN);
+    // incremented by the writer whenever it drops entries, so that a statement rendered meanwhile is not kept
+    private volatile long generation;
+
+    record Key(LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type) {
+    }
+
+    // a statement with the balance column ends with the balance it was rendered with
+    private record Entry(String statement, long balance) {
+    }
+
+    StatementCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // The balance is the current one, it only matters for statements with the balance column (without a type)
+    String get(Key key, long balance) {
+        Entry entry = entries.get(key);
+        return entry != null && (key.type() != null || entry.balance() == balance) ? entry.statement() : null;
+    }
+
+    // To be called before reading the ledger the statement is rendered from; returns the generation to be passed to put()
+    long prepare(Key key) {
+        latestEnd.accumulateAndGet(key.endDateTime(), (first, second) -> first.isAfter(second) ? first : second);
+        return generation;
+    }
+
+    void put(Key key, String statement, long balance, long generation) {
+        if (entries.size() >= capacity && !entries.containsKey(key)) {
+            return;
+        }
+        Entry entry = new Entry(statement, balance);
+        entries.put(key, entry);
+        // the writer may have dropped the entries before this one was put, in which case it may be stale
+        if (this.generation != generation) {
+            entries.remove(key, entry);
+        }
+    }
+
+    // Must be called by the single writer after publishing transactions dated from the given date on
+    void invalidateFrom(LocalDateTime date) {
+        if (date.isAfter(latestEnd.get())) {
+            return;
+        }
+        generation++;
+        entries.keySet().removeIf(key -> !key.endDateTime().isBefore(date));
+    }
+}
@@ -0,0 +1,35 @@
+package kata.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Everything a statement needs about the transactions matching a query. Sums are in euro cents, see Money;
+// dates are null when no transaction matches.
+@AllArgsConstructor
+@Getter
+public class StatementQueryResult {
+    private List<Transaction> transactions;
+    private long sumOfDepositsInMinorUnits;
+    private long sumOfWithdrawalsInMinorUnits;
+    private LocalDateTime firstDate;
+    private LocalDateTime lastDate;
+    private int count;
+
+    // Same sums as Calculator.calculateSumsOfTransactionsForPrinting(): only the queried type has its total,
+    // the balance is only printed with all the types
+    public SumsOfTransactionsForPrinting toSumsOfTransactionsForPrinting(BigDecimal balance, TransactionType type) {
+        if (type == TransactionType.DEPOSIT) {
+            return new SumsOfTransactionsForPrinting(Money.toBigDecimal(sumOfDepositsInMinorUnits), null, null);
+        } else if (type == TransactionType.WITHDRAWAL || type == TransactionType.FULL_WITHDRAWAL) {
+            return new SumsOfTransactionsForPrinting(null, Money.toBigDecimal(sumOfWithdrawalsInMinorUnits), null);
+        }
+        return new SumsOfTransactionsForPrinting(
+                Money.toBigDecimal(sumOfDepositsInMinorUnits),
+                Money.toBigDecimal(sumOfWithdrawalsInMinorUnits),
+                balance);
+    }
+}
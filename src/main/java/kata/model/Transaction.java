@@ -1,18 +1,37 @@
 package kata.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
+import lombok.Value;
+import lombok.With;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-@AllArgsConstructor
-@Getter
+// Immutable, so the same instances can be shared by all ledger versions and handed out to readers without copying
+@Value
 public class Transaction implements Serializable {
-    private LocalDateTime date;
-    private String description;
-    private BigDecimal amount;
-    private BigDecimal balance;
-    private TransactionType type;
+    LocalDateTime date;
+    String description;
+    // in euro cents, see Money
+    long amountInMinorUnits;
+    // running balance right after the transaction, in date order; when a back-dated transaction is inserted before,
+    // the ledger hands out a copy with the repaired balance
+    @With
+    long balanceInMinorUnits;
+    TransactionType type;
+    // the same for both transactions of a transfer between accounts, null for other transactions
+    String transferReference;
+
+    public BigDecimal getAmount() {
+        return Money.toBigDecimal(amountInMinorUnits);
+    }
+
+    // how the transaction changes the balance: deposits increase it, withdrawals decrease it
+    public long getBalanceChangeInMinorUnits() {
+        return type == TransactionType.DEPOSIT ? amountInMinorUnits : -amountInMinorUnits;
+    }
+
+    public BigDecimal getBalance() {
+        return Money.toBigDecimal(balanceInMinorUnits);
+    }
 }
@@ -0,0 +1,71 @@
+package kata.model;
+
+import kata.utils.Filter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Immutable, date-ordered transaction history. add() returns a new version of the ledger, previous versions
+// remain valid snapshots for concurrent readers as long as there is a single writer adding to the latest one.
+// Implementations differ only in how the transactions are stored: ObjectTransactionLedger keeps Transaction objects,
+// ColumnarTransactionLedger keeps them decomposed into primitive columns.
+public interface TransactionLedger {
+    TransactionLedger EMPTY = ObjectTransactionLedger.EMPTY;
+
+    // Transactions are expected to carry their running balance when added in date order; a back-dated one gets
+    // the running balance at its position and changes the balances of all the later ones by its amount
+    TransactionLedger add(Transaction transaction);
+
+    // Adds a whole batch, e.g. an import, as a single new version, the same as adding the transactions one by one;
+    // implementations may build it more efficiently
+    default TransactionLedger addAll(List<Transaction> transactions) {
+        TransactionLedger ledger = this;
+        for (Transaction transaction : transactions) {
+            ledger = ledger.add(transaction);
+        }
+        return ledger;
+    }
+
+    List<Transaction> getTransactions();
+
+    // WITHDRAWAL type also matches FULL_WITHDRAWAL transactions, the same way Filter.isTransactionOfType() does
+    List<Transaction> getTransactionsOfType(TransactionType type);
+
+    // Both time range ends are inclusive, null ones mean no time range restriction, null type means all types
+    List<Transaction> findTransactions(LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type);
+
+    // Both time range ends are inclusive, null ones mean no time range restriction
+    long calculateSumOfAmounts(LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionType type);
+
+    default TransactionTotals calculateTotals(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return new TransactionTotals(
+                Money.toBigDecimal(calculateSumOfAmounts(startDateTime, endDateTime, TransactionType.DEPOSIT)),
+                Money.toBigDecimal(calculateSumOfAmounts(startDateTime, endDateTime, TransactionType.WITHDRAWAL)));
+    }
+
+    // in euro cents, see Money
+    long getBalance();
+
+    // Balance stored in the latest transaction not after the given instant, 0 before the first transaction
+    default long getBalanceAsOf(LocalDateTime dateTime) {
+        List<Transaction> transactions = getTransactions();
+        int index = Filter.findFirstIndexAfter(transactions, dateTime);
+        return index == 0 ? 0 : transactions.get(index - 1).getBalanceInMinorUnits();
+    }
+
+    // The same for many instants, which must be in ascending order
+    default long[] getBalancesAsOf(List<LocalDateTime> sortedDateTimes) {
+        long[] balances = new long[sortedDateTimes.size()];
+        for (int i = 0; i < balances.length; i++) {
+            balances[i] = getBalanceAsOf(sortedDateTimes.get(i));
+        }
+        return balances;
+    }
+
+    // Lowest balance from the given instant on: the one right before the first transaction after it and the ones after
+    // every later transaction. A withdrawal dated at that instant must not exceed it, otherwise some later balance
+    // would become negative.
+    long getLowestBalanceFrom(LocalDateTime dateTime);
+
+    int size();
+}
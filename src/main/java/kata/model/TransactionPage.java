@@ -0,0 +1,15 @@
+package kata.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// One page of transaction history, newest first. nextPageToken is null on the last page,
+// otherwise it is passed to Account.getTransactionHistoryPage() to get the following (older) page.
+@AllArgsConstructor
+@Getter
+public class TransactionPage {
+    private List<Transaction> transactions;
+    private String nextPageToken;
+}
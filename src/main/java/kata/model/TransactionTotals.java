@@ -0,0 +1,14 @@
+package kata.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// Sum of deposits and sum of withdrawals (including full withdrawals) registered within a given time range
+@AllArgsConstructor
+@Getter
+public class TransactionTotals {
+    private BigDecimal sumOfDeposits;
+    private BigDecimal sumOfWithdrawals;
+}
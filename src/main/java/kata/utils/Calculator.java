@@ -1,44 +1,81 @@
 package kata.utils;
 
+import kata.model.Money;
 import kata.model.SumsOfTransactionsForPrinting;
 import kata.model.Transaction;
+import kata.model.TransactionLedger;
 import kata.model.TransactionType;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class Calculator {
     public static SumsOfTransactionsForPrinting calculateSumsOfTransactionsForPrinting(BigDecimal balanceForPrinting,
                                                                                        TransactionType typeForPrinting,
                                                                                        List<Transaction> transactionsForPrinting) {
+        return calculateSumsOfTransactionsForPrinting(
+                balanceForPrinting, typeForPrinting, transactionsForPrinting, Filter.PARALLELISM_AVAILABLE);
+    }
+
+    // parallel tells whether long lists are summed in parallel, see Filter.PARALLEL_THRESHOLD
+    public static SumsOfTransactionsForPrinting calculateSumsOfTransactionsForPrinting(BigDecimal balanceForPrinting,
+                                                                                       TransactionType typeForPrinting,
+                                                                                       List<Transaction> transactionsForPrinting,
+                                                                                       boolean parallel) {
+
+        BigDecimal sumOfDeposits = null;
+        BigDecimal sumOfWithdrawals = null;
+        balanceForPrinting = typeForPrinting == null ? balanceForPrinting : null;
+
+        if (typeForPrinting == TransactionType.DEPOSIT) {
+            sumOfDeposits = Money.toBigDecimal(calculateSumOfDepositsOrWithdrawals(transactionsForPrinting, parallel));
+        } else if (typeForPrinting == TransactionType.WITHDRAWAL || typeForPrinting == TransactionType.FULL_WITHDRAWAL) {
+            sumOfWithdrawals = Money.toBigDecimal(calculateSumOfDepositsOrWithdrawals(transactionsForPrinting, parallel));
+        } else {
+            sumOfDeposits = Money.toBigDecimal(calculateSumOfTransactionsOfType(transactionsForPrinting, TransactionType.DEPOSIT, parallel));
+            sumOfWithdrawals = Money.toBigDecimal(calculateSumOfTransactionsOfType(transactionsForPrinting, TransactionType.WITHDRAWAL, parallel));
+        }
+
+        return new SumsOfTransactionsForPrinting(sumOfDeposits, sumOfWithdrawals, balanceForPrinting);
+    }
+
+    // Same sums as above, but taken from the ledger's prefix sums instead of reducing the filtered transactions
+    public static SumsOfTransactionsForPrinting calculateSumsOfTransactionsForPrinting(BigDecimal balanceForPrinting,
+                                                                                       TransactionType typeForPrinting,
+                                                                                       TransactionLedger ledger,
+                                                                                       LocalDateTime startDateTime,
+                                                                                       LocalDateTime endDateTime) {
 
         BigDecimal sumOfDeposits = null;
         BigDecimal sumOfWithdrawals = null;
         balanceForPrinting = typeForPrinting == null ? balanceForPrinting : null;
 
         if (typeForPrinting == TransactionType.DEPOSIT) {
-            sumOfDeposits = calculateSumOfDepositsOrWithdrawals(transactionsForPrinting);
+            sumOfDeposits = Money.toBigDecimal(ledger.calculateSumOfAmounts(startDateTime, endDateTime, typeForPrinting));
         } else if (typeForPrinting == TransactionType.WITHDRAWAL || typeForPrinting == TransactionType.FULL_WITHDRAWAL) {
-            sumOfWithdrawals =  calculateSumOfDepositsOrWithdrawals(transactionsForPrinting);
+            sumOfWithdrawals = Money.toBigDecimal(ledger.calculateSumOfAmounts(startDateTime, endDateTime, typeForPrinting));
         } else {
-            sumOfDeposits = calculateSumOfTransactionsOfType(transactionsForPrinting, TransactionType.DEPOSIT);
-            sumOfWithdrawals = calculateSumOfTransactionsOfType(transactionsForPrinting, TransactionType.WITHDRAWAL);
+            sumOfDeposits = Money.toBigDecimal(ledger.calculateSumOfAmounts(startDateTime, endDateTime, TransactionType.DEPOSIT));
+            sumOfWithdrawals = Money.toBigDecimal(ledger.calculateSumOfAmounts(startDateTime, endDateTime, TransactionType.WITHDRAWAL));
         }
 
         return new SumsOfTransactionsForPrinting(sumOfDeposits, sumOfWithdrawals, balanceForPrinting);
     }
 
-    private static BigDecimal calculateSumOfTransactionsOfType(List<Transaction> transactionsForPrinting,
-                                                               TransactionType typeForPrinting) {
-        return transactionsForPrinting.stream()
+    // sums are in euro cents, see Money
+    private static long calculateSumOfTransactionsOfType(List<Transaction> transactionsForPrinting,
+                                                         TransactionType typeForPrinting,
+                                                         boolean parallel) {
+        return Filter.stream(transactionsForPrinting, parallel)
                 .filter(t -> Filter.isTransactionOfType(t, typeForPrinting))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                .mapToLong(Transaction::getAmountInMinorUnits)
+                .reduce(0, Money::add);
     }
 
-    private static BigDecimal calculateSumOfDepositsOrWithdrawals(List<Transaction> transactionsForPrinting) {
-        return transactionsForPrinting.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private static long calculateSumOfDepositsOrWithdrawals(List<Transaction> transactionsForPrinting, boolean parallel) {
+        return Filter.stream(transactionsForPrinting, parallel)
+                .mapToLong(Transaction::getAmountInMinorUnits)
+                .reduce(0, Money::add);
     }
 }
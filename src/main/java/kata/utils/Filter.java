@@ -1,20 +1,39 @@
 package kata.utils;
 
 import kata.model.Transaction;
+import kata.model.TransactionLedger;
 import kata.model.TransactionType;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class Filter {
+    // Lists at least this long are filtered and summed in parallel on the common fork-join pool, which splits them
+    // into chunks; for shorter ones, or with a single core, splitting and merging costs more than it saves.
+    // Results are the same either way: filtered lists keep their order and sums are exact long additions, see Money.add().
+    public static final int PARALLEL_THRESHOLD = 50_000;
+    static final boolean PARALLELISM_AVAILABLE = ForkJoinPool.getCommonPoolParallelism() > 1;
+
     public static List<Transaction> filterTransactionsByTimeRangeAndType(List<Transaction> transactions,
                                                                          LocalDateTime startDateTime,
                                                                          LocalDateTime endDateTime,
                                                                          TransactionType type) {
+        return filterTransactionsByTimeRangeAndType(transactions, startDateTime, endDateTime, type, PARALLELISM_AVAILABLE);
+    }
+
+    // parallel tells whether lists of at least PARALLEL_THRESHOLD transactions are filtered in parallel,
+    // which by default they are only with more than one core
+    public static List<Transaction> filterTransactionsByTimeRangeAndType(List<Transaction> transactions,
+                                                                         LocalDateTime startDateTime,
+                                                                         LocalDateTime endDateTime,
+                                                                         TransactionType type,
+                                                                         boolean parallel) {
         List<Transaction> result;
 
         if (startDateTime != null && endDateTime != null) {
-            result = transactions.stream()
+            result = stream(transactions, parallel)
                     .filter(
                             t -> isTransactionInTimeRange(t, startDateTime, endDateTime)
                     )
@@ -24,7 +43,7 @@ public class Filter {
         }
 
         if (type != null) {
-            result = result.stream()
+            result = stream(result, parallel)
                     .filter(t -> isTransactionOfType(t, type))
                     .toList();
         }
@@ -32,6 +51,92 @@ public class Filter {
         return result;
     }
 
+    // Uses the ledger's date order and per-type indexes, so only the matching transactions are touched
+    public static List<Transaction> filterTransactionsByTimeRangeAndType(TransactionLedger ledger,
+                                                                         LocalDateTime startDateTime,
+                                                                         LocalDateTime endDateTime,
+                                                                         TransactionType type) {
+        return ledger.findTransactions(startDateTime, endDateTime, type);
+    }
+
+    // Expects transactions sorted by date; returns a view (not a copy) of the ones within the inclusive time range
+    public static List<Transaction> findTransactionsInTimeRange(List<Transaction> sortedTransactions,
+                                                                LocalDateTime startDateTime,
+                                                                LocalDateTime endDateTime) {
+        int fromIndex = findFirstIndexNotBefore(sortedTransactions, startDateTime);
+        int toIndex = findFirstIndexAfter(sortedTransactions, endDateTime);
+        return sortedTransactions.subList(fromIndex, Math.max(fromIndex, toIndex));
+    }
+
+    public static int findFirstIndexNotBefore(List<Transaction> sortedTransactions, LocalDateTime dateTime) {
+        int low = 0;
+        int high = sortedTransactions.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedTransactions.get(middle).getDate().isBefore(dateTime)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public static int findFirstIndexAfter(List<Transaction> sortedTransactions, LocalDateTime dateTime) {
+        int size = sortedTransactions.size();
+        // shortcut for the most common case of looking up the position right after the latest transaction
+        if (size == 0 || !sortedTransactions.get(size - 1).getDate().isAfter(dateTime)) {
+            return size;
+        }
+
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedTransactions.get(middle).getDate().isAfter(dateTime)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    // The same as above for a dateTime not before the one of the transaction at fromIndex - 1. The search gallops
+    // forward from fromIndex, so looking up ascending dates one after another takes O(log distance) each.
+    public static int findFirstIndexAfter(List<Transaction> sortedTransactions, LocalDateTime dateTime, int fromIndex) {
+        int size = sortedTransactions.size();
+        int low = fromIndex;
+        int high = size;
+        long step = 1;
+        while (low < size) {
+            long probe = low + step - 1;
+            if (probe >= size) {
+                break;
+            }
+            if (sortedTransactions.get((int) probe).getDate().isAfter(dateTime)) {
+                high = (int) probe;
+                break;
+            }
+            low = (int) probe + 1;
+            step <<= 1;
+        }
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedTransactions.get(middle).getDate().isAfter(dateTime)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    static <T> Stream<T> stream(List<T> list, boolean parallel) {
+        return parallel && list.size() >= PARALLEL_THRESHOLD ? list.parallelStream() : list.stream();
+    }
+
     public static boolean isTransactionOfType(Transaction transaction, TransactionType type) {
         if (type == TransactionType.WITHDRAWAL) {
             return transaction.getType() == TransactionType.WITHDRAWAL || transaction.getType() == TransactionType.FULL_WITHDRAWAL;
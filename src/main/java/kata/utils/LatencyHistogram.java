@@ -0,0 +1,87 @@
+package kata.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Concurrent histogram of durations in nanoseconds with HdrHistogram-like log-linear buckets: values below 256 are
+// counted exactly, larger ones in 128 buckets per power of two, so any reported value is within 0.8% of the recorded
+// one. Recording only updates preallocated counters, it never allocates nor takes a lock.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+    // about 2.4 hours, longer durations are counted as this one
+    private static final long HIGHEST_TRACKABLE_VALUE = (1L << 43) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(HIGHEST_TRACKABLE_VALUE) + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, HIGHEST_TRACKABLE_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    // For timing with: long start = System.nanoTime(); ... histogram.recordSince(start);
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    // The highest value which the recorded ones at the given quantile (between 0 and 1) cannot be distinguished from.
+    // Concurrent recording may make it slightly inaccurate, never inconsistent.
+    public long getValueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+        }
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return 0;
+    }
+
+    // values below 2 * SUB_BUCKET_HALF_COUNT have their own buckets, each next power of two range is split
+    // into SUB_BUCKET_HALF_COUNT equal buckets
+    private static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKET_HALF_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < 2 * SUB_BUCKET_HALF_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,57 @@
+package kata.utils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Named counters and latency histograms of the application. Meters are looked up by name once, typically into
+// static fields, and then updated directly, so that recording costs a few atomic additions.
+// The text dump follows the Prometheus text format, durations being in nanoseconds.
+public class Metrics {
+    public static final Metrics GLOBAL = new Metrics();
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    public void writeText(Writer writer) throws IOException {
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+            writer.write("# TYPE " + counter.getKey() + " counter\n");
+            writer.write(counter.getKey() + " " + counter.getValue().sum() + "\n");
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            String name = entry.getKey();
+            LatencyHistogram histogram = entry.getValue();
+            writer.write("# TYPE " + name + " summary\n");
+            for (double quantile : QUANTILES) {
+                writer.write(name + "{quantile=\"" + quantile + "\"} " + histogram.getValueAtQuantile(quantile) + "\n");
+            }
+            writer.write(name + "{quantile=\"1.0\"} " + histogram.getMax() + "\n");
+            writer.write(name + "_sum " + histogram.getSum() + "\n");
+            writer.write(name + "_count " + histogram.getCount() + "\n");
+        }
+    }
+
+    public String toText() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeText(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+}
@@ -1,17 +1,64 @@
 package kata.utils;
 
+import kata.model.Money;
 import kata.model.PreTransaction;
 import kata.model.TransactionType;
+import lombok.Builder;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
-// For generating actual random transactions pre-existing when program starts
+// For generating actual random transactions pre-existing when program starts.
+// Configured through the builder, it also generates reproducible synthetic workloads of any size for benchmarks
+// and soak tests: transactions are streamed lazily, never materialized as a list, and the same seed always gives
+// the same transactions. Every block of BLOCK_SIZE transactions of an account has its own SplittableRandom,
+// seeded from the seed, the account and the block number, so the result does not depend on how a parallel
+// stream splits the work between threads.
+@Builder
 public class RandomTransactionsGenerator {
     private static final Random random = new Random();
+    private static final int BLOCK_SIZE = 4096;
+
+    @Builder.Default
+    private final long seed = 0;
+    @Builder.Default
+    private final int numberOfAccounts = 1;
+    @Builder.Default
+    private final long transactionsPerAccount = 50;
+    @Builder.Default
+    private final LocalDateTime startDate = LocalDateTime.of(2025, 1, 12, 10, 30);
+    // transactions of each account are spread evenly over the span, in date order
+    @Builder.Default
+    private final Duration dateSpan = Duration.ofDays(365);
+    // relative weights of transaction types
+    @Builder.Default
+    private final int depositWeight = 6;
+    @Builder.Default
+    private final int withdrawalWeight = 3;
+    @Builder.Default
+    private final int fullWithdrawalWeight = 1;
+    @Builder.Default
+    private final BigDecimal minAmount = new BigDecimal("1");
+    @Builder.Default
+    private final BigDecimal maxAmount = new BigDecimal("12000");
+    @Builder.Default
+    private final AmountDistribution amountDistribution = AmountDistribution.UNIFORM;
+
+    public enum AmountDistribution {
+        UNIFORM,
+        // uniform in logarithm: many small amounts and few large ones, like card payments
+        LOG_UNIFORM
+    }
+
+    public record AccountPreTransaction(String accountId, PreTransaction preTransaction) {
+    }
 
     public static List<PreTransaction> generateRandomPreTransactions() {
         List<PreTransaction> preTransactions = new ArrayList<>();
@@ -36,6 +83,113 @@ public class RandomTransactionsGenerator {
         return preTransactions;
     }
 
+    public static String getAccountId(int accountIndex) {
+        return "ACC-" + accountIndex;
+    }
+
+    // Date-ordered transactions of one account, generated lazily
+    public Stream<PreTransaction> generate(int accountIndex) {
+        validate();
+        if (accountIndex < 0 || accountIndex >= numberOfAccounts) {
+            throw new IllegalArgumentException("Account index must be between 0 and " + (numberOfAccounts - 1) + ".");
+        }
+        return LongStream.range(0, numberOfBlocks())
+                .boxed()
+                .flatMap(block -> generateBlock(accountIndex, block));
+    }
+
+    // Transactions of all the accounts, generated lazily and in parallel. Transactions of each account are in date
+    // order as long as the stream is consumed in encounter order (e.g. with forEachOrdered()).
+    public Stream<AccountPreTransaction> generateAll() {
+        validate();
+        long numberOfBlocks = numberOfBlocks();
+        return LongStream.range(0, Math.multiplyExact((long) numberOfAccounts, numberOfBlocks))
+                .parallel()
+                .boxed()
+                .flatMap(accountBlock -> {
+                    int accountIndex = (int) (accountBlock / numberOfBlocks);
+                    String accountId = getAccountId(accountIndex);
+                    return generateBlock(accountIndex, accountBlock % numberOfBlocks)
+                            .map(preTransaction -> new AccountPreTransaction(accountId, preTransaction));
+                });
+    }
+
+    public long getTotalNumberOfTransactions() {
+        return Math.multiplyExact(numberOfAccounts, transactionsPerAccount);
+    }
+
+    private Stream<PreTransaction> generateBlock(int accountIndex, long block) {
+        // the seed is mixed on its own first, as with seed + accountIndex account 1 of a seed would get the same
+        // transactions as account 0 of the next seed
+        SplittableRandom blockRandom = new SplittableRandom(mix(mix(mix(seed) ^ accountIndex) + block));
+        long from = block * BLOCK_SIZE;
+        long to = Math.min(transactionsPerAccount, from + BLOCK_SIZE);
+        return LongStream.range(from, to).mapToObj(index -> generateTransaction(blockRandom, index));
+    }
+
+    private PreTransaction generateTransaction(SplittableRandom blockRandom, long index) {
+        // each transaction gets a random moment within its own slot of the date span, which keeps them in date order
+        long spanNanos = dateSpan.toNanos();
+        long slotStart = (long) ((double) spanNanos * index / transactionsPerAccount);
+        long slotEnd = (long) ((double) spanNanos * (index + 1) / transactionsPerAccount);
+        LocalDateTime date = startDate.plusNanos(slotEnd > slotStart ? blockRandom.nextLong(slotStart, slotEnd) : slotStart);
+
+        TransactionType type = generateTransactionType(blockRandom);
+        return new PreTransaction(
+                date,
+                type == TransactionType.DEPOSIT ? "Deposit number " + index : "Payment number " + index,
+                Money.toBigDecimal(generateAmount(blockRandom)),
+                type);
+    }
+
+    private TransactionType generateTransactionType(SplittableRandom blockRandom) {
+        int draw = blockRandom.nextInt(depositWeight + withdrawalWeight + fullWithdrawalWeight);
+        if (draw < depositWeight) {
+            return TransactionType.DEPOSIT;
+        }
+        return draw < depositWeight + withdrawalWeight ? TransactionType.WITHDRAWAL : TransactionType.FULL_WITHDRAWAL;
+    }
+
+    // in euro cents
+    private long generateAmount(SplittableRandom blockRandom) {
+        long min = Money.toMinorUnits(minAmount);
+        long max = Money.toMinorUnits(maxAmount);
+        if (min == max) {
+            return min;
+        }
+        return switch (amountDistribution) {
+            case UNIFORM -> blockRandom.nextLong(min, max + 1);
+            case LOG_UNIFORM -> Math.min(max, Math.round(Math.exp(blockRandom.nextDouble(Math.log(min), Math.log(max)))));
+        };
+    }
+
+    private long numberOfBlocks() {
+        return (transactionsPerAccount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    private void validate() {
+        if (numberOfAccounts <= 0 || transactionsPerAccount < 0) {
+            throw new IllegalArgumentException("Number of accounts must be positive and number of transactions not negative.");
+        }
+        if (depositWeight < 0 || withdrawalWeight < 0 || fullWithdrawalWeight < 0
+                || depositWeight + withdrawalWeight + fullWithdrawalWeight == 0) {
+            throw new IllegalArgumentException("Transaction type weights must not be negative and at least one must be positive.");
+        }
+        if (minAmount.signum() <= 0 || minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("Amounts must be positive and minimum amount must not exceed maximum one.");
+        }
+        if (dateSpan.isNegative()) {
+            throw new IllegalArgumentException("Date span must not be negative.");
+        }
+    }
+
+    // SplitMix64 finalizer, spreads consecutive seeds over the whole range
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
     private static LocalDateTime generateTransactionDate(LocalDateTime initialTransactionDate, int i) {
         LocalDateTime resultDate = initialTransactionDate.plusDays(i);
         return resultDate.plusHours(i);
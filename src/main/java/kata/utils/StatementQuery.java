@@ -0,0 +1,79 @@
+package kata.utils;
+
+import kata.model.Money;
+import kata.model.StatementQueryResult;
+import kata.model.Transaction;
+import kata.model.TransactionLedger;
+import kata.model.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Finds the transactions of a statement together with their totals, dates and count, instead of filtering with
+// Filter and then summing the result again with Calculator.
+// Time range is applied only when both its ends are provided, null type means all types, as in Filter.
+public class StatementQuery {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // One pass over the list, which collects the matching transactions into the only list allocated
+    public static StatementQueryResult execute(List<Transaction> transactions,
+                                               LocalDateTime startDateTime,
+                                               LocalDateTime endDateTime,
+                                               TransactionType type) {
+        boolean timeRange = startDateTime != null && endDateTime != null;
+        List<Transaction> matching = new ArrayList<>(type == null && !timeRange ? transactions.size() : INITIAL_CAPACITY);
+        long sumOfDeposits = 0;
+        long sumOfWithdrawals = 0;
+        LocalDateTime firstDate = null;
+        LocalDateTime lastDate = null;
+
+        for (Transaction transaction : transactions) {
+            if (type != null && !Filter.isTransactionOfType(transaction, type)) {
+                continue;
+            }
+            LocalDateTime date = transaction.getDate();
+            if (timeRange && (date.isBefore(startDateTime) || date.isAfter(endDateTime))) {
+                continue;
+            }
+            matching.add(transaction);
+            if (transaction.getType() == TransactionType.DEPOSIT) {
+                sumOfDeposits = Money.add(sumOfDeposits, transaction.getAmountInMinorUnits());
+            } else {
+                sumOfWithdrawals = Money.add(sumOfWithdrawals, transaction.getAmountInMinorUnits());
+            }
+            // the list does not have to be sorted
+            if (firstDate == null || date.isBefore(firstDate)) {
+                firstDate = date;
+            }
+            if (lastDate == null || date.isAfter(lastDate)) {
+                lastDate = date;
+            }
+        }
+
+        return new StatementQueryResult(matching, sumOfDeposits, sumOfWithdrawals, firstDate, lastDate, matching.size());
+    }
+
+    // No pass at all: the transactions are a view of the ledger indexes, the totals come from their prefix sums
+    // and the dates from both ends of the date-ordered view
+    public static StatementQueryResult execute(TransactionLedger ledger,
+                                               LocalDateTime startDateTime,
+                                               LocalDateTime endDateTime,
+                                               TransactionType type) {
+        List<Transaction> matching = ledger.findTransactions(startDateTime, endDateTime, type);
+        long sumOfDeposits = type == null || type == TransactionType.DEPOSIT
+                ? ledger.calculateSumOfAmounts(startDateTime, endDateTime, TransactionType.DEPOSIT)
+                : 0;
+        long sumOfWithdrawals = type != TransactionType.DEPOSIT
+                ? ledger.calculateSumOfAmounts(startDateTime, endDateTime, type == null ? TransactionType.WITHDRAWAL : type)
+                : 0;
+        int count = matching.size();
+        return new StatementQueryResult(
+                matching,
+                sumOfDeposits,
+                sumOfWithdrawals,
+                count == 0 ? null : matching.get(0).getDate(),
+                count == 0 ? null : matching.get(count - 1).getDate(),
+                count);
+    }
+}
@@ -0,0 +1,112 @@
+import kata.io.AccountHttpServer;
+import kata.io.Printer;
+import kata.model.Bank;
+import kata.utils.Metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AccountHttpServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Bank bank;
+    private AccountHttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        bank = new Bank(1, mock(Printer.class));
+        server = AccountHttpServer.start(bank, new Metrics(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    void stopServer() throws InterruptedException {
+        server.close();
+        bank.close();
+    }
+
+    @Test
+    void shouldServeAccountOperationsAndStatement() throws Exception {
+
+        // given
+        String today = LocalDate.now().toString();
+
+        // when, then
+        assertThat(send("POST", "/accounts/ACC-1").statusCode()).isEqualTo(201);
+        assertThat(send("POST", "/accounts/ACC-1").statusCode()).isEqualTo(409);
+        assertThat(send("POST", "/accounts/ACC-1/deposit?amount=1000.50&description=Monthly%20salary").statusCode()).isEqualTo(200);
+        assertThat(send("POST", "/accounts/ACC-1/withdrawal?amount=200&description=Groceries").statusCode()).isEqualTo(200);
+        assertThat(send("POST", "/accounts/ACC-1/withdrawal?amount=5000&description=Car").statusCode()).isEqualTo(422);
+        assertThat(send("GET", "/accounts/ACC-1/balance").body()).isEqualTo("800.50\n");
+        HttpResponse<String> statement = send("GET", "/accounts/ACC-1/statement?from=" + today + "&to=" + today);
+        assertThat(statement.statusCode()).isEqualTo(200);
+        assertThat(statement.body()).contains("Monthly salary", "Groceries", "€ 800.50").doesNotContain("Car");
+        assertThat(send("GET", "/accounts/ACC-1/statement?type=DEPOSIT").body()).contains("Monthly salary").doesNotContain("Groceries");
+        assertThat(send("POST", "/accounts/ACC-1/full-withdrawal").statusCode()).isEqualTo(200);
+        assertThat(send("POST", "/accounts/ACC-1/full-withdrawal").statusCode()).isEqualTo(422);
+        assertThat(send("GET", "/accounts/ACC-1/balance").body()).isEqualTo("0.00\n");
+    }
+
+    @Test
+    void shouldRejectInvalidRequests() throws Exception {
+
+        // given
+        send("POST", "/accounts/ACC-1");
+
+        // when, then
+        assertThat(send("POST", "/accounts/ACC-2/deposit?amount=10").statusCode()).isEqualTo(404);
+        assertThat(send("POST", "/accounts/ACC-1/deposit").statusCode()).isEqualTo(400);
+        assertThat(send("POST", "/accounts/ACC-1/deposit?amount=ten").statusCode()).isEqualTo(400);
+        assertThat(send("POST", "/accounts/ACC-1/deposit?amount=1e50000000").statusCode()).isEqualTo(400);
+        assertThat(send("POST", "/accounts/ACC-1/deposit?amount=1e-50000000").statusCode()).isEqualTo(400);
+        assertThat(send("GET", "/accounts/ACC-1/deposit?amount=10").statusCode()).isEqualTo(405);
+        assertThat(send("GET", "/accounts/ACC-1/statement?from=2025-01-01").statusCode()).isEqualTo(400);
+        assertThat(send("GET", "/accounts/ACC-1/statement?type=LOAN").statusCode()).isEqualTo(400);
+        assertThat(send("GET", "/accounts/ACC-1/interest").statusCode()).isEqualTo(404);
+        assertThat(send("GET", "/accounts/ACC-1/balance").body()).isEqualTo("0.00\n");
+    }
+
+    @Test
+    void shouldHandleConcurrentRequestsWithoutLosingUpdates() throws Exception {
+
+        // given
+        send("POST", "/accounts/ACC-1");
+        int numberOfRequests = 200;
+
+        // when
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < numberOfRequests; i++) {
+            responses.add(client.sendAsync(request("POST", "/accounts/ACC-1/deposit?amount=1.25"), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // then
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertThat(response.join().statusCode()).isEqualTo(200);
+        }
+        assertThat(send("GET", "/accounts/ACC-1/balance").body()).isEqualTo("250.00\n");
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        return client.send(request(method, path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+}
@@ -3,15 +3,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import kata.io.Printer;
 import kata.model.*;
+import kata.utils.Calculator;
+import kata.utils.Filter;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
@@ -136,7 +150,375 @@ public class AccountTest {
         account.withdrawAllFunds();
 
         // then
-        assertThat(account.getBalance()).isEqualTo(BigDecimal.ZERO);
+        assertThat(account.getBalance()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void shouldReturnSameTotalsInTimeRangeAsSummingFilteredTransactions() {
+        // given
+        List<Transaction> transactionsInTimeRange = Filter.filterTransactionsByTimeRangeAndType(
+                account.getTransactionsDeepCopy(),
+                LocalDateTime.of(2025, 1, 25, 0, 0),
+                LocalDateTime.of(2025, 2, 19, 0, 0),
+                null);
+        SumsOfTransactionsForPrinting expectedSums = Calculator.calculateSumsOfTransactionsForPrinting(
+                account.getBalance(),
+                null,
+                transactionsInTimeRange);
+
+        // when
+        TransactionTotals totals = account.getTotalsInTimeRange(LocalDate.of(2025, 1, 25), LocalDate.of(2025, 2, 18));
+
+        // then
+        assertThat(totals.getSumOfDeposits()).isEqualTo(expectedSums.getSumOfDeposits());
+        assertThat(totals.getSumOfWithdrawals()).isEqualTo(expectedSums.getSumOfWithdrawals());
+        assertThat(account.getTotalsInTimeRange(null, null).getSumOfDeposits()).isEqualTo(new BigDecimal("25100.00"));
+    }
+
+    @Test
+    void shouldKeepBalanceConsistentWhenOperationsArePerformedConcurrently() throws Exception {
+        // given
+        Account concurrentAccount = new Account(Mockito.mock(Printer.class));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    concurrentAccount.makeDeposit(new BigDecimal("10"), "Deposit");
+                    concurrentAccount.makeWithdrawal(new BigDecimal("15"), "Withdrawal");
+                    if (j % 100 == 0) {
+                        concurrentAccount.withdrawAllFunds();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        List<Transaction> transactions = concurrentAccount.getTransactionsDeepCopy();
+        assertThat(transactions).allMatch(t -> t.getBalance().compareTo(BigDecimal.ZERO) >= 0);
+        assertThat(concurrentAccount.getBalance()).isEqualTo(TestUtils.calculateBalance(transactions));
+    }
+
+    @Test
+    void shouldReturnAllMatchingTransactionsNewestFirstPageByPage() {
+        // given
+        List<Transaction> expectedTransactions = new ArrayList<>(Filter.filterTransactionsByTimeRangeAndType(
+                account.getTransactionsDeepCopy(), null, null, TransactionType.WITHDRAWAL));
+        Collections.reverse(expectedTransactions);
+        List<Transaction> pagedTransactions = new ArrayList<>();
+
+        // when
+        String pageToken = null;
+        do {
+            TransactionPage page = account.getTransactionHistoryPage(null, null, TransactionType.WITHDRAWAL, 2, pageToken);
+            assertThat(page.getTransactions().size()).isBetween(1, 2);
+            pagedTransactions.addAll(page.getTransactions());
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        // then
+        assertThat(pagedTransactions).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expectedTransactions);
+    }
+
+    @Test
+    void shouldContinueFromSamePlaceWhenNewTransactionIsRegisteredBetweenPages() {
+        // given
+        TransactionPage firstPage = account.getTransactionHistoryPage(null, null, null, 3, null);
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+
+        // when
+        account.makeDeposit(new BigDecimal("100"), "Registered meanwhile");
+        TransactionPage secondPage = account.getTransactionHistoryPage(null, null, null, 3, firstPage.getNextPageToken());
+
+        // then
+        assertThat(secondPage.getTransactions()).extracting(Transaction::getDate).containsExactly(
+                transactions.get(transactions.size() - 4).getDate(),
+                transactions.get(transactions.size() - 5).getDate(),
+                transactions.get(transactions.size() - 6).getDate());
+        assertThatThrownBy(() -> account.getTransactionHistoryPage(null, null, null, 3, "not a token"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldKeepSnapshotUnchangedWhenTransactionsAreRegisteredLater() {
+        // given
+        List<Transaction> snapshot = account.getTransactionsSnapshot();
+        List<Transaction> transactionsBefore = account.getTransactionsDeepCopy();
+
+        // when
+        account.makeDeposit(new BigDecimal("100"), "Registered after the snapshot");
+
+        // then
+        assertThat(snapshot).containsExactlyElementsOf(transactionsBefore);
+        assertThat(account.getTransactionsSnapshot()).hasSize(transactionsBefore.size() + 1);
+        assertThatThrownBy(() -> snapshot.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldImportSameTransactionsAsInitializingAccountWithThemAndSummarizeRejectedOnes() {
+        // given
+        List<PreTransaction> preTransactions = new ArrayList<>(TestUtils.generateGeneralPreTransactions());
+        preTransactions.addAll(TestUtils.generateValidAndInvalidPreTransactions());
+        Account expectedAccount = new Account(preTransactions, Mockito.mock(Printer.class));
+        Printer importPrinter = Mockito.mock(Printer.class);
+        Account importingAccount = new Account(importPrinter);
+
+        // when
+        ImportSummary summary = importingAccount.importPreTransactions(preTransactions);
+
+        // then
+        assertThat(importingAccount.getTransactionsDeepCopy()).containsExactlyElementsOf(expectedAccount.getTransactionsDeepCopy());
+        assertThat(importingAccount.getBalance()).isEqualTo(expectedAccount.getBalance());
+        assertThat(summary.getImportedCount()).isEqualTo(expectedAccount.getTransactionsDeepCopy().size());
+        assertThat(summary.getRejectedCount()).isEqualTo(preTransactions.size() - summary.getImportedCount());
+        assertThat(summary.getRejectedCounts()).containsKeys(
+                ImportSummary.RejectionReason.INSUFFICIENT_FUNDS, ImportSummary.RejectionReason.NO_FUNDS);
+        Mockito.verify(importPrinter, Mockito.times(1)).printLine(summary.toString());
+        Mockito.verifyNoMoreInteractions(importPrinter);
+    }
+
+    @Test
+    void shouldPrintSingleSummaryLineInsteadOfMessagePerTransactionWhenInitializedWithPreTransactions() {
+        // given
+        Printer mockedPrinter = Mockito.mock(Printer.class);
+        List<PreTransaction> preTransactions = TestUtils.generateGeneralPreTransactions();
+
+        // when
+        Account initializedAccount = new Account(preTransactions, mockedPrinter);
+
+        // then
+        Mockito.verify(mockedPrinter, Mockito.times(1)).printLine(
+                String.format("Imported %d transactions, none rejected.", preTransactions.size()));
+        Mockito.verifyNoMoreInteractions(mockedPrinter);
+        assertThat(initializedAccount.getTransactionsDeepCopy()).hasSize(preTransactions.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideEmptyLedgers")
+    void shouldImportShuffledBatchTheSameWayAsImportingItsEntriesOneByOne(TransactionLedger emptyLedger) {
+        // given
+        List<PreTransaction> preTransactions = new ArrayList<>(TestUtils.generateGeneralPreTransactions());
+        preTransactions.addAll(TestUtils.generateValidAndInvalidPreTransactions());
+        Collections.shuffle(preTransactions, new Random(11));
+        Account batchAccount = new Account(Mockito.mock(Printer.class), emptyLedger);
+        Account oneByOneAccount = new Account(Mockito.mock(Printer.class), emptyLedger);
+        // every entry is back-dated before it
+        List<PreTransaction> laterSalary = List.of(new PreTransaction(
+                LocalDateTime.of(2025, 12, 1, 9, 0), "Later salary", new BigDecimal("10"), TransactionType.DEPOSIT));
+        batchAccount.importPreTransactions(laterSalary);
+        oneByOneAccount.importPreTransactions(laterSalary);
+
+        // when
+        ImportSummary summary = batchAccount.importPreTransactions(preTransactions);
+        int importedOneByOne = preTransactions.stream()
+                .mapToInt(preTransaction -> oneByOneAccount.importPreTransactions(List.of(preTransaction)).getImportedCount())
+                .sum();
+
+        // then
+        assertThat(batchAccount.getTransactionsDeepCopy()).containsExactlyElementsOf(oneByOneAccount.getTransactionsDeepCopy());
+        assertThat(batchAccount.getBalance()).isEqualTo(oneByOneAccount.getBalance());
+        assertThat(summary.getImportedCount()).isEqualTo(importedOneByOne).isLessThan(preTransactions.size());
+        assertThat(batchAccount.getPeriodSummary(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)))
+                .usingRecursiveComparison()
+                .isEqualTo(oneByOneAccount.getPeriodSummary(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+    }
+
+    @Test
+    void shouldReuseRenderedStatementOfClosedPeriodUntilTransactionWithinItIsAdded() {
+        // given
+        Printer mockedPrinter = Mockito.mock(Printer.class);
+        Account cachingAccount = new Account(TestUtils.generateGeneralPreTransactions(), mockedPrinter);
+        LocalDate startDate = LocalDate.of(2025, 1, 20);
+        LocalDate endDate = LocalDate.of(2025, 2, 20);
+        ArgumentCaptor<String> printedStatements = ArgumentCaptor.forClass(String.class);
+
+        // when
+        cachingAccount.printTransactionsByTimeRangeAndType(startDate, endDate, TransactionType.DEPOSIT);
+        cachingAccount.makeDeposit(new BigDecimal("100"), "Outside of the range");
+        cachingAccount.printTransactionsByTimeRangeAndType(startDate, endDate, TransactionType.DEPOSIT);
+        cachingAccount.importPreTransactions(List.of(new PreTransaction(
+                LocalDateTime.of(2025, 2, 1, 12, 0), "Back-dated", new BigDecimal("50"), TransactionType.DEPOSIT)));
+        cachingAccount.printTransactionsByTimeRangeAndType(startDate, endDate, TransactionType.DEPOSIT);
+
+        // then
+        Mockito.verify(mockedPrinter, Mockito.times(3)).printStatement(printedStatements.capture());
+        Mockito.verify(mockedPrinter, Mockito.never()).printTransactionHistory(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        List<String> statements = printedStatements.getAllValues();
+        assertThat(statements.get(1)).isSameAs(statements.get(0)).doesNotContain("Back-dated");
+        assertThat(statements.get(2)).contains("Back-dated");
+    }
+
+    @Test
+    void shouldRenderCachedStatementWithBalanceAgainOnlyWhenBalanceChanges() {
+        // given
+        Printer mockedPrinter = Mockito.mock(Printer.class);
+        Account cachingAccount = new Account(TestUtils.generateGeneralPreTransactions(), mockedPrinter);
+        LocalDate startDate = LocalDate.of(2025, 1, 20);
+        LocalDate endDate = LocalDate.of(2025, 2, 20);
+        ArgumentCaptor<String> printedStatements = ArgumentCaptor.forClass(String.class);
+
+        // when
+        cachingAccount.printTransactionsInTimeRange(startDate, endDate);
+        cachingAccount.printTransactionsInTimeRange(startDate, endDate);
+        cachingAccount.makeDeposit(new BigDecimal("100"), "Outside of the range");
+        cachingAccount.printTransactionsInTimeRange(startDate, endDate);
+        cachingAccount.printTransactionsInTimeRange(startDate, endDate);
+
+        // then
+        Mockito.verify(mockedPrinter, Mockito.times(4)).printStatement(printedStatements.capture());
+        List<String> statements = printedStatements.getAllValues();
+        assertThat(statements.get(1)).isSameAs(statements.get(0));
+        // the balance is always the current one, also when printed with a cached statement
+        assertThat(statements.get(2)).isNotEqualTo(statements.get(0))
+                .contains("\u20ac " + cachingAccount.getBalance())
+                .doesNotContain("Outside of the range");
+        assertThat(statements.get(3)).isSameAs(statements.get(2));
+    }
+
+    @Test
+    void shouldNotCacheStatementsOfPeriodsNotEndedYetNorOfManyTransactions() {
+        // given
+        Printer mockedPrinter = Mockito.mock(Printer.class);
+        Account cachingAccount = new Account(mockedPrinter);
+        LocalDateTime firstDate = LocalDateTime.of(2025, 1, 1, 9, 0, 30);
+        cachingAccount.importPreTransactions(IntStream.range(0, 5000)
+                .mapToObj(i -> new PreTransaction(firstDate.plusMinutes(i), "Deposit " + i, BigDecimal.ONE, TransactionType.DEPOSIT))
+                .toList());
+        ArgumentCaptor<List<Transaction>> printedTransactions = ArgumentCaptor.captor();
+        ArgumentCaptor<String> printedStatements = ArgumentCaptor.forClass(String.class);
+
+        // when
+        cachingAccount.printAllDeposits();
+        cachingAccount.printTransactionsInTimeRange(LocalDate.of(2025, 1, 1), LocalDate.now());
+        cachingAccount.printTransactionsInTimeRange(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        cachingAccount.printTransactionsInTimeRange(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1));
+        cachingAccount.printTransactionsInTimeRange(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1));
+
+        // then
+        Mockito.verify(mockedPrinter, Mockito.times(3)).printTransactionHistory(
+                printedTransactions.capture(), Mockito.any(), Mockito.any(), Mockito.any());
+        assertThat(printedTransactions.getAllValues()).allSatisfy(statement -> assertThat(statement).hasSize(5000));
+        Mockito.verify(mockedPrinter, Mockito.times(2)).printStatement(printedStatements.capture());
+        assertThat(printedStatements.getAllValues().get(1)).isSameAs(printedStatements.getAllValues().get(0));
+    }
+
+    @Test
+    void shouldInvalidateCachedStatementsOfLaterPeriodsWhenBackDatedTransactionIsAdded() {
+        // given
+        Printer mockedPrinter = Mockito.mock(Printer.class);
+        Account cachingAccount = new Account(mockedPrinter);
+        cachingAccount.importPreTransactions(List.of(
+                new PreTransaction(LocalDateTime.of(2025, 1, 10, 9, 0), "January salary", new BigDecimal("100"), TransactionType.DEPOSIT),
+                new PreTransaction(LocalDateTime.of(2025, 3, 10, 9, 0), "March salary", new BigDecimal("50"), TransactionType.DEPOSIT)));
+        LocalDate startDate = LocalDate.of(2025, 3, 1);
+        LocalDate endDate = LocalDate.of(2025, 3, 31);
+        ArgumentCaptor<String> printedStatements = ArgumentCaptor.forClass(String.class);
+
+        // when
+        cachingAccount.printTransactionsByTimeRangeAndType(startDate, endDate, null);
+        cachingAccount.printTransactionsByTimeRangeAndType(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), TransactionType.DEPOSIT);
+        cachingAccount.importPreTransactions(List.of(new PreTransaction(
+                LocalDateTime.of(2025, 2, 10, 9, 0), "February bonus", new BigDecimal("1000"), TransactionType.DEPOSIT)));
+        cachingAccount.printTransactionsByTimeRangeAndType(startDate, endDate, null);
+        cachingAccount.printTransactionsByTimeRangeAndType(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), TransactionType.DEPOSIT);
+
+        // then
+        Mockito.verify(mockedPrinter, Mockito.times(4)).printStatement(printedStatements.capture());
+        List<String> statements = printedStatements.getAllValues();
+        assertThat(statements.get(0)).contains("\u20ac 150.00").doesNotContain("1150.00");
+        assertThat(statements.get(2)).contains("\u20ac 1150.00");
+        // statements of the periods ended before the back-dated transaction stay cached
+        assertThat(statements.get(3)).isSameAs(statements.get(1));
+    }
+
+    @Test
+    void shouldReturnBalancesAsOfPastInstants() {
+        // given
+        LocalDateTime salaryDate = LocalDateTime.of(2025, 1, 16, 10, 30);
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+
+        // when
+        BigDecimal balanceBeforeFirstTransaction = account.getBalanceAsOf(salaryDate.minusMinutes(1));
+        SortedMap<LocalDateTime, BigDecimal> endOfDayBalances = account.getBalancesAsOf(List.of(
+                LocalDateTime.of(2025, 3, 1, 0, 0), salaryDate, LocalDateTime.of(2025, 1, 17, 0, 0), salaryDate));
+
+        // then
+        assertThat(balanceBeforeFirstTransaction).isEqualTo(new BigDecimal("0.00"));
+        assertThat(endOfDayBalances.keySet()).containsExactly(
+                salaryDate, LocalDateTime.of(2025, 1, 17, 0, 0), LocalDateTime.of(2025, 3, 1, 0, 0));
+        assertThat(endOfDayBalances.get(salaryDate)).isEqualTo(new BigDecimal("11000.00"));
+        assertThat(endOfDayBalances.get(LocalDateTime.of(2025, 3, 1, 0, 0)))
+                .isEqualTo(transactions.get(transactions.size() - 1).getBalance())
+                .isEqualTo(account.getBalanceAsOf(LocalDateTime.of(2025, 3, 1, 0, 0)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideEmptyLedgers")
+    void shouldRepairRunningBalancesWhenBackDatedTransactionsArrive(TransactionLedger emptyLedger) {
+        // given
+        Account lateAccount = new Account(Mockito.mock(Printer.class), emptyLedger);
+
+        // when
+        lateAccount.importPreTransactions(List.of(new PreTransaction(
+                LocalDateTime.of(2025, 3, 1, 9, 0), "Salary", new BigDecimal("1000"), TransactionType.DEPOSIT)));
+        lateAccount.importPreTransactions(List.of(new PreTransaction(
+                LocalDateTime.of(2025, 2, 1, 9, 0), "Late refund", new BigDecimal("500"), TransactionType.DEPOSIT)));
+        lateAccount.importPreTransactions(List.of(new PreTransaction(
+                LocalDateTime.of(2025, 2, 15, 9, 0), "Late payment", new BigDecimal("200"), TransactionType.WITHDRAWAL)));
+
+        // then
+        List<Transaction> transactions = lateAccount.getTransactionsDeepCopy();
+        assertThat(transactions).extracting(Transaction::getDescription).containsExactly("Late refund", "Late payment", "Salary");
+        assertThat(transactions).extracting(Transaction::getBalance).containsExactly(
+                new BigDecimal("500.00"), new BigDecimal("300.00"), new BigDecimal("1300.00"));
+        assertThat(lateAccount.getBalance()).isEqualTo(new BigDecimal("1300.00"));
+        assertThat(lateAccount.getBalanceAsOf(LocalDateTime.of(2025, 2, 20, 0, 0))).isEqualTo(new BigDecimal("300.00"));
+        assertThat(lateAccount.getPeriodSummary(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28)).getClosingBalance())
+                .isEqualTo(new BigDecimal("300.00"));
+        assertThat(lateAccount.getTransactionHistoryPage(null, null, TransactionType.DEPOSIT, 10, null).getTransactions())
+                .extracting(Transaction::getBalance)
+                .containsExactly(new BigDecimal("1300.00"), new BigDecimal("500.00"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideEmptyLedgers")
+    void shouldRejectBackDatedWithdrawalsOverdrawingAnyLaterBalance(TransactionLedger emptyLedger) {
+        // given
+        Account lateAccount = new Account(Mockito.mock(Printer.class), emptyLedger);
+        lateAccount.importPreTransactions(List.of(
+                new PreTransaction(LocalDateTime.of(2025, 1, 1, 9, 0), "Salary", new BigDecimal("100"), TransactionType.DEPOSIT),
+                new PreTransaction(LocalDateTime.of(2025, 3, 10, 9, 0), "Rent", new BigDecimal("60"), TransactionType.WITHDRAWAL)));
+
+        // when
+        ImportSummary summary = lateAccount.importPreTransactions(List.of(
+                new PreTransaction(LocalDateTime.of(2025, 2, 1, 9, 0), "Too late payment", new BigDecimal("50"), TransactionType.WITHDRAWAL),
+                new PreTransaction(LocalDateTime.of(2025, 2, 1, 9, 0), "Late payment", new BigDecimal("40"), TransactionType.WITHDRAWAL),
+                new PreTransaction(LocalDateTime.of(2025, 2, 2, 9, 0), "Late withdrawal", new BigDecimal("1"), TransactionType.WITHDRAWAL),
+                new PreTransaction(LocalDateTime.of(2025, 1, 5, 9, 0), null, BigDecimal.ZERO, TransactionType.FULL_WITHDRAWAL),
+                new PreTransaction(LocalDateTime.of(2024, 12, 1, 9, 0), null, BigDecimal.ZERO, TransactionType.FULL_WITHDRAWAL)));
+
+        // then
+        assertThat(summary.getImportedCount()).isEqualTo(1);
+        assertThat(summary.getRejectedCounts()).containsEntry(ImportSummary.RejectionReason.INSUFFICIENT_FUNDS, 3)
+                .containsEntry(ImportSummary.RejectionReason.NO_FUNDS, 1);
+        List<Transaction> transactions = lateAccount.getTransactionsDeepCopy();
+        assertThat(transactions).extracting(Transaction::getDescription).containsExactly("Salary", "Late payment", "Rent");
+        assertThat(transactions).extracting(Transaction::getBalance).containsExactly(
+                new BigDecimal("100.00"), new BigDecimal("60.00"), new BigDecimal("0.00"));
+        assertThat(lateAccount.getBalance()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    private static Stream<Arguments> provideEmptyLedgers() {
+        return Stream.of(
+                Arguments.of(TransactionLedger.EMPTY),
+                Arguments.of(ColumnarTransactionLedger.EMPTY)
+        );
     }
 
     private static Stream<Arguments> provideSeriesOfWithdrawals() {
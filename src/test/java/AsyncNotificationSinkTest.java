@@ -0,0 +1,151 @@
+import kata.io.AsyncNotificationSink;
+import kata.io.Printer;
+import kata.model.Account;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class AsyncNotificationSinkTest {
+
+    @Test
+    void shouldWriteAllNotificationsInPublishingOrder() throws Exception {
+        // given
+        StringWriter writer = new StringWriter();
+        AsyncNotificationSink sink = new AsyncNotificationSink(writer, 4, AsyncNotificationSink.OverflowPolicy.BLOCK);
+        Account account = new Account(new Printer(sink));
+
+        // when
+        account.makeWithdrawal(new BigDecimal("100"), "Rent");
+        IntStream.range(0, 100).forEach(i -> sink.publish("Notification " + i));
+        sink.close();
+
+        // then
+        String[] lines = writer.toString().split(System.lineSeparator());
+        assertThat(lines).hasSize(101);
+        assertThat(lines[0]).contains("insufficient funds");
+        assertThat(lines).endsWith("Notification 98", "Notification 99");
+        assertThat(sink.getDroppedCount()).isZero();
+        assertThatThrownBy(() -> sink.publish("Too late"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldDropNewNotificationsInsteadOfWaitingWhenBufferIsFull() throws Exception {
+        // given
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch slowWriterReleased = new CountDownLatch(1);
+        StringWriter writer = new StringWriter() {
+            @Override
+            public void write(String text) {
+                writeStarted.countDown();
+                try {
+                    slowWriterReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(text);
+            }
+        };
+        AsyncNotificationSink sink = new AsyncNotificationSink(writer, 2, AsyncNotificationSink.OverflowPolicy.DROP);
+        sink.publish("Being written");
+        writeStarted.await();
+
+        // when
+        IntStream.range(0, 5).forEach(i -> sink.publish("Notification " + i));
+        slowWriterReleased.countDown();
+        sink.flush();
+
+        // then
+        assertThat(sink.getDroppedCount()).isEqualTo(3);
+        assertThat(writer.toString().split(System.lineSeparator()))
+                .containsExactly("Being written", "Notification 0", "Notification 1");
+        sink.close();
+    }
+
+    @Test
+    void shouldCountNotificationsWhichFailedToBeWrittenAsDropped() throws Exception {
+        // given
+        Writer failingWriter = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncNotificationSink sink = new AsyncNotificationSink(failingWriter, 8, AsyncNotificationSink.OverflowPolicy.BLOCK);
+
+        // when
+        sink.publish("Lost");
+        sink.close();
+
+        // then
+        assertThat(sink.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectNotificationWaitingForSpaceWhenSinkIsClosed() throws Exception {
+        // given
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch slowWriterReleased = new CountDownLatch(1);
+        StringWriter writer = new StringWriter() {
+            @Override
+            public void write(String text) {
+                writeStarted.countDown();
+                try {
+                    slowWriterReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(text);
+            }
+        };
+        AsyncNotificationSink sink = new AsyncNotificationSink(writer, 1, AsyncNotificationSink.OverflowPolicy.BLOCK);
+        sink.publish("Being written");
+        writeStarted.await();
+        sink.publish("Buffered");
+        AtomicReference<Throwable> latePublishFailure = new AtomicReference<>();
+        Thread latePublisher = new Thread(() -> latePublishFailure.set(catchThrowable(() -> sink.publish("Late"))));
+        latePublisher.start();
+        awaitWaiting(latePublisher);
+
+        // when
+        Thread closer = new Thread(() -> {
+            try {
+                sink.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        closer.start();
+        awaitWaiting(closer);
+        slowWriterReleased.countDown();
+        latePublisher.join();
+        closer.join();
+        sink.flush();
+
+        // then
+        assertThat(latePublishFailure.get()).isInstanceOf(IllegalStateException.class);
+        assertThat(writer.toString().split(System.lineSeparator())).containsExactly("Being written", "Buffered");
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+    }
+}
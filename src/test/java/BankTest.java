@@ -0,0 +1,135 @@
+import kata.io.Printer;
+import kata.model.Bank;
+import kata.model.Transaction;
+import kata.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class BankTest {
+
+    private final Bank bank = new Bank(4, Mockito.mock(Printer.class));
+
+    @AfterEach
+    void closeBank() throws InterruptedException {
+        bank.close();
+    }
+
+    @Test
+    void shouldApplyOperationsToProperAccounts() {
+        // given
+        bank.openAccount("A");
+        bank.openAccount("B");
+
+        // when
+        boolean depositRegistered = bank.makeDeposit("A", new BigDecimal("1000"), "Salary").join();
+        boolean withdrawalRegistered = bank.makeWithdrawal("A", new BigDecimal("300"), "Rent").join();
+        boolean fullWithdrawalRegistered = bank.withdrawAllFunds("B").join();
+
+        // then
+        assertThat(depositRegistered).isTrue();
+        assertThat(withdrawalRegistered).isTrue();
+        assertThat(fullWithdrawalRegistered).isFalse();
+        assertThat(bank.getAccount("A").getBalance()).isEqualTo(new BigDecimal("700.00"));
+        assertThat(bank.getAccount("B").getBalance()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void shouldKeepEveryAccountConsistentWhenManyAccountsAreOperatedInParallel() {
+        // given
+        int numberOfAccounts = 100;
+        for (int i = 0; i < numberOfAccounts; i++) {
+            bank.openAccount("ACC-" + i);
+        }
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+
+        // when
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < numberOfAccounts; i++) {
+                futures.add(bank.makeDeposit("ACC-" + i, new BigDecimal("100"), "Deposit"));
+                futures.add(bank.makeWithdrawal("ACC-" + i, new BigDecimal("30"), "Withdrawal"));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // then
+        for (int i = 0; i < numberOfAccounts; i++) {
+            List<Transaction> transactions = bank.getAccount("ACC-" + i).getTransactionsDeepCopy();
+            assertThat(transactions.size()).isEqualTo(40);
+            assertThat(bank.getAccount("ACC-" + i).getBalance()).isEqualTo(new BigDecimal("1400.00"));
+        }
+    }
+
+    @Test
+    void shouldRejectUnknownAndDuplicatedAccounts() {
+        // given
+        bank.openAccount("A");
+
+        // when, then
+        assertThatThrownBy(() -> bank.openAccount("A")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bank.makeDeposit("X", BigDecimal.TEN, "Deposit").get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRegisterLinkedTransactionsOnBothSidesOfTransfer() {
+        // given
+        bank.openAccount("A");
+        bank.openAccount("B");
+        bank.makeDeposit("A", new BigDecimal("1000"), "Salary").join();
+
+        // when
+        boolean transferRegistered = bank.transfer("A", "B", new BigDecimal("400"), "Rent share").join();
+        boolean tooBigTransferRegistered = bank.transfer("A", "B", new BigDecimal("601"), "Too big transfer").join();
+
+        // then
+        Transaction debit = bank.getAccount("A").getTransactionsDeepCopy().get(1);
+        Transaction credit = bank.getAccount("B").getTransactionsDeepCopy().get(0);
+
+        assertThat(transferRegistered).isTrue();
+        assertThat(tooBigTransferRegistered).isFalse();
+        assertThat(bank.getAccount("A").getBalance()).isEqualTo(new BigDecimal("600.00"));
+        assertThat(bank.getAccount("B").getBalance()).isEqualTo(new BigDecimal("400.00"));
+        assertThat(debit.getType()).isEqualTo(TransactionType.WITHDRAWAL);
+        assertThat(credit.getType()).isEqualTo(TransactionType.DEPOSIT);
+        assertThat(debit.getTransferReference()).isNotNull().isEqualTo(credit.getTransferReference());
+        assertThat(bank.getAccount("A").getTransactionsDeepCopy().get(0).getTransferReference()).isNull();
+    }
+
+    @Test
+    void shouldPreserveTotalFundsWhenOppositeTransfersRunConcurrently() {
+        // given
+        int numberOfAccounts = 5;
+        for (int i = 0; i < numberOfAccounts; i++) {
+            bank.openAccount("ACC-" + i);
+            bank.makeDeposit("ACC-" + i, new BigDecimal("1000"), "Initial deposit").join();
+        }
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+
+        // when
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < numberOfAccounts; i++) {
+                int j = (i + 1 + round % (numberOfAccounts - 1)) % numberOfAccounts;
+                futures.add(bank.transfer("ACC-" + i, "ACC-" + j, new BigDecimal("7"), "Transfer"));
+                futures.add(bank.transfer("ACC-" + j, "ACC-" + i, new BigDecimal("5"), "Transfer back"));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // then
+        BigDecimal totalFunds = BigDecimal.ZERO;
+        for (int i = 0; i < numberOfAccounts; i++) {
+            totalFunds = totalFunds.add(bank.getAccount("ACC-" + i).getBalance());
+        }
+        assertThat(totalFunds).isEqualTo(new BigDecimal("5000.00"));
+    }
+}
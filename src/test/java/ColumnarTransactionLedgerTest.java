@@ -0,0 +1,316 @@
+import kata.io.Printer;
+import kata.model.Account;
+import kata.model.ColumnarTransactionLedger;
+import kata.model.Transaction;
+import kata.model.TransactionLedger;
+import kata.model.TransactionType;
+import kata.utils.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ColumnarTransactionLedgerTest {
+
+    private final Printer printer = new Printer();
+
+    private final Account account = new Account(TestUtils.generateGeneralPreTransactions(), printer);
+
+    @Test
+    void shouldFindSameTransactionsAndSumsAsObjectLedger() {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        TransactionLedger objectLedger = TransactionLedger.EMPTY;
+        TransactionLedger columnarLedger = ColumnarTransactionLedger.EMPTY;
+        for (Transaction transaction : transactions) {
+            objectLedger = objectLedger.add(transaction);
+            columnarLedger = columnarLedger.add(transaction);
+        }
+        LocalDateTime startTime = LocalDateTime.of(2025, 1, 25, 13, 21);
+        LocalDateTime endTime = LocalDateTime.of(2025, 2, 18, 8, 30);
+
+        // when, then
+        assertThat(columnarLedger.getBalance()).isEqualTo(objectLedger.getBalance());
+        for (TransactionType type : new TransactionType[]{null, TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.FULL_WITHDRAWAL}) {
+            assertThat(Filter.filterTransactionsByTimeRangeAndType(columnarLedger, startTime, endTime, type))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(Filter.filterTransactionsByTimeRangeAndType(objectLedger, startTime, endTime, type));
+            assertThat(Filter.filterTransactionsByTimeRangeAndType(columnarLedger, null, null, type))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(Filter.filterTransactionsByTimeRangeAndType(objectLedger, null, null, type));
+            if (type != null) {
+                assertThat(columnarLedger.calculateSumOfAmounts(startTime, endTime, type))
+                        .isEqualTo(objectLedger.calculateSumOfAmounts(startTime, endTime, type));
+            }
+        }
+    }
+
+    @Test
+    void shouldKeepColumnsInDateOrderWhenTransactionIsAddedOutOfOrder() {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        TransactionLedger ledger = ColumnarTransactionLedger.EMPTY;
+
+        // when
+        for (int i = transactions.size() - 1; i >= 0; i--) {
+            ledger = ledger.add(transactions.get(i));
+        }
+
+        // then
+        assertThat(ledger.getTransactions())
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("balanceInMinorUnits")
+                .containsExactlyElementsOf(transactions);
+        assertThat(ledger.getTransactionsOfType(TransactionType.WITHDRAWAL))
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("balanceInMinorUnits")
+                .containsExactlyElementsOf(Filter.filterTransactionsByTimeRangeAndType(transactions, null, null, TransactionType.WITHDRAWAL));
+        TestUtils.assertRunningBalances(ledger);
+        TransactionLedger objectLedger = TransactionLedger.EMPTY.addAll(transactions);
+        for (TransactionType type : TransactionType.values()) {
+            assertThat(ledger.calculateSumOfAmounts(LocalDateTime.of(2025, 1, 20, 0, 0), LocalDateTime.of(2025, 2, 20, 0, 0), type))
+                    .isEqualTo(objectLedger.calculateSumOfAmounts(LocalDateTime.of(2025, 1, 20, 0, 0), LocalDateTime.of(2025, 2, 20, 0, 0), type));
+        }
+    }
+
+    @Test
+    void shouldWorkAsAccountStorage() {
+
+        // given
+        Account columnarAccount = new Account(printer, ColumnarTransactionLedger.EMPTY);
+        Account target = new Account(printer, ColumnarTransactionLedger.EMPTY);
+
+        // when
+        columnarAccount.makeDeposit(new BigDecimal("1000.50"), "Salary");
+        columnarAccount.makeWithdrawal(new BigDecimal("200"), "Groceries");
+        columnarAccount.transferTo(target, new BigDecimal("300"), "Rent");
+
+        // then
+        assertThat(columnarAccount.getBalance()).isEqualTo(new BigDecimal("500.50"));
+        assertThat(target.getBalance()).isEqualTo(new BigDecimal("300.00"));
+        assertThat(columnarAccount.getTotalsInTimeRange(LocalDate.now(), LocalDate.now()).getSumOfWithdrawals())
+                .isEqualTo(new BigDecimal("500.00"));
+        List<Transaction> transactions = columnarAccount.getTransactionsDeepCopy();
+        assertThat(transactions).extracting(Transaction::getDescription).containsExactly("Salary", "Groceries", "Rent");
+        assertThat(transactions.get(2).getTransferReference())
+                .isNotNull()
+                .isEqualTo(target.getTransactionsDeepCopy().get(0).getTransferReference());
+    }
+
+    @Test
+    void shouldFindLowestLaterBalanceAsScanningHistory() {
+
+        // given
+        SplittableRandom random = new SplittableRandom(23);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        TransactionLedger objectLedger = TransactionLedger.EMPTY;
+        TransactionLedger columnarLedger = ColumnarTransactionLedger.EMPTY;
+        long balance = 0;
+        for (int i = 0; i < 1000; i++) {
+            boolean deposit = balance == 0 || random.nextInt(3) > 0;
+            long amount = deposit ? random.nextLong(1, 10_000) : random.nextLong(1, balance + 1);
+            // every tenth transaction is back-dated by up to a hundred transactions
+            LocalDateTime date = start.plusHours(i % 10 == 9 ? Math.max(0, i - random.nextInt(100)) : i).plusMinutes(30);
+            long balanceAfter = columnarLedger.getBalanceAsOf(date) + (deposit ? amount : -amount);
+            Transaction transaction = new Transaction(date, "Transaction " + i, amount, balanceAfter,
+                    deposit ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL, null);
+            long lowest = columnarLedger.getLowestBalanceFrom(date);
+            if (!deposit && lowest < amount) {
+                continue;
+            }
+            balance += transaction.getBalanceChangeInMinorUnits();
+            objectLedger = objectLedger.add(transaction);
+            columnarLedger = columnarLedger.add(transaction);
+        }
+
+        // when, then
+        List<Transaction> transactions = objectLedger.getTransactions();
+        assertThat(objectLedger.getBalance()).isEqualTo(balance);
+        TestUtils.assertRunningBalances(objectLedger);
+        TestUtils.assertRunningBalances(columnarLedger);
+        for (int hour = -1; hour <= 1001; hour += 7) {
+            LocalDateTime instant = start.plusHours(hour);
+            long expected = objectLedger.getBalanceAsOf(instant);
+            for (Transaction transaction : transactions) {
+                if (transaction.getDate().isAfter(instant)) {
+                    expected = Math.min(expected, transaction.getBalanceInMinorUnits());
+                }
+            }
+            assertThat(expected).isNotNegative();
+            assertThat(objectLedger.getLowestBalanceFrom(instant)).isEqualTo(expected);
+            assertThat(columnarLedger.getLowestBalanceFrom(instant)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldFindSameBalancesAsOfInstantsAsObjectLedgerAndReplayingHistory() {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        TransactionLedger objectLedger = TransactionLedger.EMPTY.addAll(transactions);
+        TransactionLedger columnarLedger = ColumnarTransactionLedger.EMPTY.addAll(transactions);
+        List<LocalDateTime> instants = new ArrayList<>();
+        instants.add(transactions.get(0).getDate().minusNanos(1));
+        for (Transaction transaction : transactions) {
+            instants.add(transaction.getDate());
+            instants.add(transaction.getDate().plusHours(1));
+        }
+        instants.add(LocalDateTime.MAX);
+        Collections.sort(instants);
+
+        // when
+        long[] objectBalances = objectLedger.getBalancesAsOf(instants);
+        long[] columnarBalances = columnarLedger.getBalancesAsOf(instants);
+
+        // then
+        for (int i = 0; i < instants.size(); i++) {
+            long replayedBalance = 0;
+            for (Transaction transaction : transactions) {
+                if (!transaction.getDate().isAfter(instants.get(i))) {
+                    replayedBalance = transaction.getBalanceInMinorUnits();
+                }
+            }
+            assertThat(objectBalances[i]).isEqualTo(replayedBalance);
+            assertThat(columnarBalances[i]).isEqualTo(replayedBalance);
+            assertThat(objectLedger.getBalanceAsOf(instants.get(i))).isEqualTo(replayedBalance);
+            assertThat(columnarLedger.getBalanceAsOf(instants.get(i))).isEqualTo(replayedBalance);
+        }
+    }
+
+    @Test
+    void shouldMergeShuffledBatchTheSameWayAsAddingItsTransactionsOneByOne() {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        List<Transaction> history = transactions.subList(0, transactions.size() / 2);
+        // the batch interleaves with the history, has several transactions of the same date and is not in date order
+        List<Transaction> batch = new ArrayList<>();
+        for (Transaction transaction : transactions.subList(transactions.size() / 2, transactions.size())) {
+            batch.add(new Transaction(transaction.getDate().minusDays(10), transaction.getDescription(),
+                    transaction.getAmountInMinorUnits(), 0, TransactionType.DEPOSIT, null));
+            batch.add(new Transaction(history.get(0).getDate(), "Same date " + batch.size(), 100, 0, TransactionType.DEPOSIT, null));
+        }
+        Collections.shuffle(batch, new Random(7));
+
+        for (TransactionLedger emptyLedger : new TransactionLedger[]{TransactionLedger.EMPTY, ColumnarTransactionLedger.EMPTY}) {
+            TransactionLedger ledger = emptyLedger.addAll(history);
+            // the object ledger recomputes the running balances of all the added transactions
+            TransactionLedger expectedLedger = TransactionLedger.EMPTY.addAll(history);
+            for (Transaction transaction : batch) {
+                expectedLedger = expectedLedger.add(transaction);
+            }
+
+            // when
+            TransactionLedger mergedLedger = ledger.addAll(batch);
+
+            // then
+            assertThat(mergedLedger.getTransactions())
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expectedLedger.getTransactions());
+            assertThat(mergedLedger.getTransactionsOfType(TransactionType.WITHDRAWAL))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expectedLedger.getTransactionsOfType(TransactionType.WITHDRAWAL));
+            TestUtils.assertRunningBalances(mergedLedger);
+            assertThat(mergedLedger.getBalance()).isEqualTo(expectedLedger.getBalance());
+            assertThat(mergedLedger.getLowestBalanceFrom(history.get(0).getDate()))
+                    .isEqualTo(expectedLedger.getLowestBalanceFrom(history.get(0).getDate()));
+            assertThat(ledger.getTransactions()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(history);
+        }
+    }
+
+    @Test
+    void shouldAnswerTheSameAsScanningHistoryWhenManyTransactionsAreBackDated() {
+
+        // given
+        SplittableRandom random = new SplittableRandom(11);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        TransactionType[] types = TransactionType.values();
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // the first quarter comes in date order, the rest anywhere in the same days, often at the same minute
+            LocalDateTime date = start.plusMinutes(i < 5_000 ? i : random.nextInt(6_000));
+            TransactionType type = types[random.nextInt(10) < 6 ? 0 : 1 + random.nextInt(2)];
+            long amount = random.nextLong(1, 10_000);
+            // the balances are derived from the opening balance the first one sets, 0
+            long balance = i == 0 && type == TransactionType.DEPOSIT ? amount : i == 0 ? -amount : 0;
+            transactions.add(new Transaction(date, "Transaction " + i, amount, balance, type, i % 50 == 0 ? "Transfer " + i : null));
+        }
+        TransactionLedger objectLedger = TransactionLedger.EMPTY;
+        TransactionLedger columnarLedger = ColumnarTransactionLedger.EMPTY;
+        List<Transaction> history = new ArrayList<>();
+        List<TransactionLedger> halfwayLedgers = List.of();
+        List<Transaction> halfwayHistory = List.of();
+
+        // when
+        for (Transaction transaction : transactions) {
+            objectLedger = objectLedger.add(transaction);
+            columnarLedger = columnarLedger.add(transaction);
+            history.add(Filter.findFirstIndexAfter(history, transaction.getDate()), transaction);
+            if (history.size() == transactions.size() / 2) {
+                halfwayLedgers = List.of(objectLedger, columnarLedger);
+                halfwayHistory = new ArrayList<>(history);
+            }
+        }
+
+        // then
+        for (TransactionLedger ledger : List.of(objectLedger, columnarLedger)) {
+            assertSameAsScanning(ledger, history, start, random);
+        }
+        // the earlier versions are not changed by the later transactions
+        for (TransactionLedger ledger : halfwayLedgers) {
+            assertSameAsScanning(ledger, halfwayHistory, start, random);
+        }
+    }
+
+    private static void assertSameAsScanning(TransactionLedger ledger, List<Transaction> history, LocalDateTime start,
+                                             SplittableRandom random) {
+        List<Transaction> expected = new ArrayList<>();
+        long balance = 0;
+        for (Transaction transaction : history) {
+            balance += transaction.getBalanceChangeInMinorUnits();
+            expected.add(transaction.withBalanceInMinorUnits(balance));
+        }
+        assertThat(ledger.size()).isEqualTo(expected.size());
+        assertThat(ledger.getBalance()).isEqualTo(balance);
+        assertThat(ledger.getTransactions()).isEqualTo(expected);
+        for (TransactionType type : TransactionType.values()) {
+            assertThat(ledger.getTransactionsOfType(type))
+                    .isEqualTo(Filter.filterTransactionsByTimeRangeAndType(expected, null, null, type));
+        }
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime from = start.plusMinutes(random.nextInt(-10, 6_010)).plusSeconds(random.nextInt(2) * 30);
+            LocalDateTime to = from.plusMinutes(random.nextInt(300));
+            TransactionType type = TransactionType.values()[random.nextInt(3)];
+            long expectedBalanceAsOf = 0;
+            long expectedLowest = 0;
+            long expectedSum = 0;
+            for (Transaction transaction : expected) {
+                if (!transaction.getDate().isAfter(from)) {
+                    expectedBalanceAsOf = transaction.getBalanceInMinorUnits();
+                    expectedLowest = transaction.getBalanceInMinorUnits();
+                } else {
+                    expectedLowest = Math.min(expectedLowest, transaction.getBalanceInMinorUnits());
+                }
+                if (Filter.isTransactionOfType(transaction, type)
+                        && !transaction.getDate().isBefore(from) && !transaction.getDate().isAfter(to)) {
+                    expectedSum += transaction.getAmountInMinorUnits();
+                }
+            }
+            assertThat(ledger.getBalanceAsOf(from)).isEqualTo(expectedBalanceAsOf);
+            assertThat(ledger.getLowestBalanceFrom(from)).isEqualTo(expectedLowest);
+            assertThat(ledger.calculateSumOfAmounts(from, to, type)).isEqualTo(expectedSum);
+            assertThat(ledger.findTransactions(from, to, type))
+                    .isEqualTo(Filter.filterTransactionsByTimeRangeAndType(expected, from, to, type));
+            assertThat(ledger.findTransactions(from, to, null))
+                    .isEqualTo(Filter.filterTransactionsByTimeRangeAndType(expected, from, to, null));
+        }
+    }
+}
@@ -1,11 +1,18 @@
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import kata.io.Printer;
 import kata.model.Account;
+import kata.model.Money;
+import kata.model.SumsOfTransactionsForPrinting;
 import kata.model.Transaction;
+import kata.model.TransactionLedger;
 import kata.model.TransactionType;
+import kata.utils.Calculator;
 import kata.utils.Filter;
+import kata.utils.RandomTransactionsGenerator;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -131,4 +138,113 @@ public class FilterTest {
         // then
         assertThat(transactionsAfterFiltering.size()).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnSameTransactionsFromLedgerIndexesAsFromScanningWholeHistory() {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        TransactionLedger ledger = TransactionLedger.EMPTY;
+        for (Transaction transaction : transactions) {
+            ledger = ledger.add(transaction);
+        }
+        LocalDateTime startTime = LocalDateTime.of(2025, 1, 25, 0, 0);
+        LocalDateTime endTime = LocalDateTime.of(2025, 2, 19, 0, 0);
+
+        // when, then
+        for (TransactionType type : new TransactionType[]{null, TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.FULL_WITHDRAWAL}) {
+            assertThat(Filter.filterTransactionsByTimeRangeAndType(ledger, startTime, endTime, type))
+                    .containsExactlyElementsOf(Filter.filterTransactionsByTimeRangeAndType(transactions, startTime, endTime, type));
+            assertThat(Filter.filterTransactionsByTimeRangeAndType(ledger, null, null, type))
+                    .containsExactlyElementsOf(Filter.filterTransactionsByTimeRangeAndType(transactions, null, null, type));
+        }
+    }
+
+    @Test
+    void shouldIncludeTransactionsLyingExactlyOnTimeRangeBoundaries() {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        LocalDateTime startTime = LocalDateTime.of(2025, 1, 25, 13, 21);
+        LocalDateTime endTime = LocalDateTime.of(2025, 2, 18, 8, 30);
+
+        // when
+        List<Transaction> transactionsAfterFiltering = Filter.findTransactionsInTimeRange(transactions, startTime, endTime);
+
+        // then
+        assertThat(transactionsAfterFiltering.size()).isEqualTo(3);
+        assertThat(transactionsAfterFiltering.get(0).getDate()).isEqualTo(startTime);
+        assertThat(transactionsAfterFiltering.get(2).getDate()).isEqualTo(endTime);
+    }
+
+    @Test
+    void shouldKeepLedgerInDateOrderWhenTransactionIsAddedOutOfOrder() {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        TransactionLedger ledger = TransactionLedger.EMPTY;
+
+        // when
+        for (int i = transactions.size() - 1; i >= 0; i--) {
+            ledger = ledger.add(transactions.get(i));
+        }
+
+        // then balances are repaired into running balances of the new order, see TestUtils.assertRunningBalances()
+        assertThat(ledger.getTransactions())
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("balanceInMinorUnits")
+                .containsExactlyElementsOf(transactions);
+        assertThat(ledger.getTransactionsOfType(TransactionType.WITHDRAWAL))
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("balanceInMinorUnits")
+                .containsExactlyElementsOf(Filter.filterTransactionsByTimeRangeAndType(transactions, null, null, TransactionType.WITHDRAWAL));
+        TestUtils.assertRunningBalances(ledger);
+    }
+
+    @Test
+    void shouldFilterAndSumLargeListsInParallelWithSameResultsAsSequentially() {
+
+        // given
+        Account largeAccount = new Account(Mockito.mock(Printer.class));
+        largeAccount.importPreTransactions(RandomTransactionsGenerator.builder()
+                .seed(18)
+                .transactionsPerAccount(4L * Filter.PARALLEL_THRESHOLD)
+                .build()
+                .generate(0)
+                .toList());
+        List<Transaction> transactions = largeAccount.getTransactionsDeepCopy();
+        LocalDateTime startTime = transactions.get(transactions.size() / 5).getDate();
+        LocalDateTime endTime = transactions.get(transactions.size() * 4 / 5).getDate();
+        List<Transaction> expectedTransactions = new ArrayList<>();
+        long expectedSumOfDeposits = 0;
+        long expectedSumOfWithdrawals = 0;
+        for (Transaction transaction : transactions) {
+            boolean withdrawal = Filter.isTransactionOfType(transaction, TransactionType.WITHDRAWAL);
+            if (!transaction.getDate().isBefore(startTime) && !transaction.getDate().isAfter(endTime) && withdrawal) {
+                expectedTransactions.add(transaction);
+            }
+            if (withdrawal) {
+                expectedSumOfWithdrawals += transaction.getAmountInMinorUnits();
+            } else {
+                expectedSumOfDeposits += transaction.getAmountInMinorUnits();
+            }
+        }
+
+        // when
+        List<Transaction> transactionsFilteredInParallel = Filter.filterTransactionsByTimeRangeAndType(
+                transactions, startTime, endTime, TransactionType.WITHDRAWAL, true);
+        List<Transaction> transactionsFilteredSequentially = Filter.filterTransactionsByTimeRangeAndType(
+                transactions, startTime, endTime, TransactionType.WITHDRAWAL, false);
+        SumsOfTransactionsForPrinting sumsInParallel = Calculator.calculateSumsOfTransactionsForPrinting(
+                largeAccount.getBalance(), null, transactions, true);
+        SumsOfTransactionsForPrinting sumsSequentially = Calculator.calculateSumsOfTransactionsForPrinting(
+                largeAccount.getBalance(), null, transactions, false);
+
+        // then
+        assertThat(transactions.size()).isGreaterThan(Filter.PARALLEL_THRESHOLD);
+        assertThat(transactionsFilteredInParallel).containsExactlyElementsOf(expectedTransactions);
+        assertThat(transactionsFilteredSequentially).containsExactlyElementsOf(expectedTransactions);
+        for (SumsOfTransactionsForPrinting sums : List.of(sumsInParallel, sumsSequentially)) {
+            assertThat(sums.getSumOfDeposits()).isEqualTo(Money.toBigDecimal(expectedSumOfDeposits));
+            assertThat(sums.getSumOfWithdrawals()).isEqualTo(Money.toBigDecimal(expectedSumOfWithdrawals));
+        }
+    }
+}
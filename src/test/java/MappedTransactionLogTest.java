@@ -0,0 +1,110 @@
+import kata.io.MappedTransactionLog;
+import kata.io.Printer;
+import kata.model.Account;
+import kata.model.Transaction;
+import kata.model.TransactionType;
+import kata.utils.Filter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class MappedTransactionLogTest {
+
+    private final Printer printer = new Printer();
+
+    private final Account account = new Account(TestUtils.generateGeneralPreTransactions(), printer);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldReadTheSameTransactionsAsWritten() throws Exception {
+        // given
+        Path logPath = directory.resolve("account.log");
+        account.makeDeposit(new BigDecimal("12.34"), "Zażółć gęślą jaźń");
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+
+        // when
+        account.writeTransactionLog(logPath);
+
+        // then
+        try (MappedTransactionLog log = MappedTransactionLog.open(logPath)) {
+            assertThat(log.size()).isEqualTo(transactions.size());
+            for (int i = 0; i < transactions.size(); i++) {
+                assertThat(log.getTransactions().get(i)).usingRecursiveComparison().isEqualTo(transactions.get(i));
+            }
+        }
+    }
+
+    @Test
+    void shouldReadEmptyDescriptionWhenStringHeapIsEmpty() throws Exception {
+        // given
+        Path logPath = directory.resolve("account.log");
+        Account accountWithEmptyDescription = new Account(printer);
+        accountWithEmptyDescription.makeDeposit(new BigDecimal("10"), "");
+
+        // when
+        accountWithEmptyDescription.writeTransactionLog(logPath);
+
+        // then
+        try (MappedTransactionLog log = MappedTransactionLog.open(logPath)) {
+            assertThat(log.getTransactions().get(0).getDescription()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldFindSameTransactionsInTimeRangeAsFilteringAllTransactions() throws Exception {
+        // given
+        Path logPath = directory.resolve("account.log");
+        account.writeTransactionLog(logPath);
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        LocalDateTime startTime = LocalDateTime.of(2025, 1, 25, 0, 0);
+        LocalDateTime endTime = LocalDateTime.of(2025, 2, 19, 0, 0);
+
+        try (MappedTransactionLog log = MappedTransactionLog.open(logPath)) {
+            // when
+            List<Transaction> foundTransactions = log.findTransactions(startTime, endTime, TransactionType.DEPOSIT);
+
+            // then
+            List<Transaction> expectedTransactions = Filter.filterTransactionsByTimeRangeAndType(
+                    transactions, startTime, endTime, TransactionType.DEPOSIT);
+            assertThat(foundTransactions).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expectedTransactions);
+        }
+    }
+
+    @Test
+    void shouldPrintTheSameStatementAsAccount() throws Exception {
+        // given
+        Path logPath = directory.resolve("account.log");
+        account.writeTransactionLog(logPath);
+        ByteArrayOutputStream accountOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream logOutput = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+
+        // when
+        try (MappedTransactionLog log = MappedTransactionLog.open(logPath)) {
+            System.setOut(new PrintStream(accountOutput));
+            account.printTransactionsInTimeRange(LocalDate.of(2025, 1, 25), LocalDate.of(2025, 2, 18));
+            System.setOut(new PrintStream(logOutput));
+            log.printTransactionHistory(
+                    printer,
+                    LocalDateTime.of(2025, 1, 25, 0, 0),
+                    LocalDateTime.of(2025, 2, 19, 0, 0),
+                    null);
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        // then
+        assertThat(logOutput.toString()).isEqualTo(accountOutput.toString());
+    }
+}
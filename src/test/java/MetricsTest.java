@@ -0,0 +1,143 @@
+import kata.io.MetricsHttpServer;
+import kata.io.Printer;
+import kata.model.Account;
+import kata.model.PreTransaction;
+import kata.model.TransactionType;
+import kata.utils.LatencyHistogram;
+import kata.utils.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MetricsTest {
+
+    @Test
+    void shouldReportQuantilesWithinOnePercentOfExactOnes() {
+
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(24);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // from a few nanoseconds to seconds, as latencies are
+            values[i] = (long) Math.exp(random.nextDouble(1, 22));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        // when, then
+        assertThat(histogram.getCount()).isEqualTo(values.length);
+        assertThat(histogram.getMax()).isEqualTo(values[values.length - 1]);
+        assertThat(histogram.getSum()).isEqualTo(Arrays.stream(values).sum());
+        for (double quantile : new double[]{0.01, 0.5, 0.9, 0.99, 0.999, 1}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            assertThat(histogram.getValueAtQuantile(quantile))
+                    .isGreaterThanOrEqualTo(exact)
+                    .isLessThanOrEqualTo(exact + exact / 100);
+        }
+    }
+
+    @Test
+    void shouldRecordWithoutAllocating() {
+
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 100_000; i++) {
+            histogram.record(i);
+        }
+
+        // when
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 1_000_000; i++) {
+            histogram.record(i * 31L);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        // then
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    @Test
+    void shouldCountAccountOperationsAndRejections() {
+
+        // given
+        Account account = new Account(mock(Printer.class));
+        long deposits = Metrics.GLOBAL.histogram("account_deposit_nanoseconds").getCount();
+        long withdrawals = Metrics.GLOBAL.histogram("account_withdrawal_nanoseconds").getCount();
+        long insufficientFunds = Metrics.GLOBAL.counter("account_rejected_insufficient_funds_total").sum();
+        long nonPositiveAmounts = Metrics.GLOBAL.counter("account_rejected_non_positive_amount_total").sum();
+
+        // when
+        account.makeDeposit(new BigDecimal("100"), "Salary");
+        account.makeDeposit(BigDecimal.ZERO, "Nothing");
+        account.makeWithdrawal(new BigDecimal("500"), "Car");
+
+        // then
+        assertThat(Metrics.GLOBAL.histogram("account_deposit_nanoseconds").getCount()).isEqualTo(deposits + 2);
+        assertThat(Metrics.GLOBAL.histogram("account_withdrawal_nanoseconds").getCount()).isEqualTo(withdrawals + 1);
+        assertThat(Metrics.GLOBAL.counter("account_rejected_insufficient_funds_total").sum()).isEqualTo(insufficientFunds + 1);
+        assertThat(Metrics.GLOBAL.counter("account_rejected_non_positive_amount_total").sum()).isEqualTo(nonPositiveAmounts + 1);
+    }
+
+    @Test
+    void shouldCountRejectionsOfImportedTransactions() {
+
+        // given
+        Account account = new Account(mock(Printer.class));
+        long insufficientFunds = Metrics.GLOBAL.counter("account_rejected_insufficient_funds_total").sum();
+        long nonPositiveAmounts = Metrics.GLOBAL.counter("account_rejected_non_positive_amount_total").sum();
+        long noFunds = Metrics.GLOBAL.counter("account_rejected_no_funds_total").sum();
+
+        // when
+        account.importPreTransactions(List.of(
+                new PreTransaction(LocalDateTime.of(2025, 1, 1, 9, 0), "Nothing", BigDecimal.ZERO, TransactionType.DEPOSIT),
+                new PreTransaction(LocalDateTime.of(2025, 1, 2, 9, 0), "Nothing", BigDecimal.ZERO, TransactionType.WITHDRAWAL),
+                new PreTransaction(LocalDateTime.of(2025, 1, 3, 9, 0), null, BigDecimal.ZERO, TransactionType.FULL_WITHDRAWAL),
+                new PreTransaction(LocalDateTime.of(2025, 1, 4, 9, 0), "Car", new BigDecimal("500"), TransactionType.WITHDRAWAL)));
+
+        // then
+        assertThat(Metrics.GLOBAL.counter("account_rejected_insufficient_funds_total").sum()).isEqualTo(insufficientFunds + 1);
+        assertThat(Metrics.GLOBAL.counter("account_rejected_non_positive_amount_total").sum()).isEqualTo(nonPositiveAmounts + 2);
+        assertThat(Metrics.GLOBAL.counter("account_rejected_no_funds_total").sum()).isEqualTo(noFunds + 1);
+    }
+
+    @Test
+    void shouldServeTextDumpOverHttp() throws Exception {
+
+        // given
+        Metrics metrics = new Metrics();
+        metrics.counter("requests_total").add(3);
+        metrics.histogram("request_nanoseconds").record(1500);
+
+        // when
+        HttpResponse<String> response;
+        try (MetricsHttpServer server = MetricsHttpServer.start(metrics, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body())
+                .isEqualTo(metrics.toText())
+                .contains("requests_total 3\n")
+                .contains("request_nanoseconds{quantile=\"0.5\"} 1500\n")
+                .contains("request_nanoseconds_count 1\n");
+    }
+}
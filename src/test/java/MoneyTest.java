@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+import kata.model.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void shouldConvertAmountsBackAndForthWithoutLosingValue() {
+
+        // given
+        BigDecimal amount = new BigDecimal("1234.56");
+
+        // when
+        long minorUnits = Money.toMinorUnits(amount);
+
+        // then
+        assertThat(minorUnits).isEqualTo(123456L);
+        assertThat(Money.toBigDecimal(minorUnits)).isEqualTo(amount);
+        assertThat(Money.toBigDecimal(Money.toMinorUnits(new BigDecimal("2000.00")))).isEqualTo(new BigDecimal("2000.00"));
+    }
+
+    @Test
+    void shouldRejectAmountsWithFractionOfCentInsteadOfRoundingThem() {
+
+        // given
+        BigDecimal subCentAmount = new BigDecimal("0.004");
+
+        // when, then
+        assertThatThrownBy(() -> Money.toMinorUnits(subCentAmount)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(Money.toMinorUnits(new BigDecimal("12.3400"))).isEqualTo(1234L);
+    }
+
+    @Test
+    void shouldFormatAmountsTheSameWayAsBigDecimalWithScaleOfTwo() {
+
+        // given
+        BigDecimal[] amounts = {
+                new BigDecimal("0"), new BigDecimal("0.05"), new BigDecimal("-0.5"),
+                new BigDecimal("12.3"), new BigDecimal("-7.01"), new BigDecimal("11000")
+        };
+
+        // when, then
+        for (BigDecimal amount : amounts) {
+            assertThat(Money.format(Money.toMinorUnits(amount))).isEqualTo(amount.setScale(2, RoundingMode.HALF_DOWN).toString());
+        }
+    }
+
+    @Test
+    void shouldThrowInsteadOfOverflowing() {
+
+        // given
+        long maxMinorUnits = Long.MAX_VALUE;
+
+        // when, then
+        assertThatThrownBy(() -> Money.add(maxMinorUnits, 1)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.toMinorUnits(new BigDecimal("1e18"))).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,139 @@
+import kata.io.Printer;
+import kata.model.Account;
+import kata.model.ColumnarTransactionLedger;
+import kata.model.PeriodSummary;
+import kata.model.PreTransaction;
+import kata.model.RollupPeriod;
+import kata.model.Transaction;
+import kata.model.TransactionType;
+import kata.utils.RandomTransactionsGenerator;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class PeriodRollupsTest {
+
+    private final Printer printer = Mockito.mock(Printer.class);
+
+    @Test
+    void shouldSummarizePeriodsTheSameAsSummingTheirTransactions() {
+        // given
+        Account account = new Account(printer);
+        account.importPreTransactions(generatePreTransactions());
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        Random random = new Random(21);
+
+        for (int i = 0; i < 200; i++) {
+            LocalDate startDate = LocalDate.of(2023, 12, 1).plusDays(random.nextInt(800));
+            LocalDate endDate = startDate.plusDays(random.nextInt(400));
+
+            // when
+            PeriodSummary summary = account.getPeriodSummary(startDate, endDate);
+
+            // then
+            assertThat(summary).isEqualTo(summarize(transactions, startDate, endDate));
+        }
+    }
+
+    @Test
+    void shouldKeepRollupsCorrectWhenTransactionsAreBackDated() {
+        // given
+        List<PreTransaction> preTransactions = new ArrayList<>(generatePreTransactions());
+        Collections.shuffle(preTransactions, new Random(21));
+        Account account = new Account(printer, ColumnarTransactionLedger.EMPTY);
+
+        // when
+        preTransactions.forEach(preTransaction -> account.importPreTransactions(List.of(preTransaction)));
+
+        // then
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2025, 12, 31);
+        assertThat(account.getPeriodSummary(LocalDate.of(2024, 2, 10), LocalDate.of(2025, 5, 20)))
+                .isEqualTo(summarize(transactions, LocalDate.of(2024, 2, 10), LocalDate.of(2025, 5, 20)));
+        for (PeriodSummary month : account.getRollups(RollupPeriod.MONTH, startDate, endDate)) {
+            assertThat(month).isEqualTo(summarize(transactions, month.getStartDate(), month.getEndDate()));
+        }
+        for (PeriodSummary day : account.getRollups(RollupPeriod.DAY, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30))) {
+            assertThat(day).isEqualTo(summarize(transactions, day.getStartDate(), day.getEndDate()));
+        }
+    }
+
+    @Test
+    void shouldCarryBalanceOverPeriodsWithoutTransactionsInBalanceSeries() {
+        // given
+        Account account = new Account(printer);
+        account.importPreTransactions(List.of(
+                new PreTransaction(LocalDateTime.of(2025, 1, 10, 9, 0), "Salary", new BigDecimal("1000"), TransactionType.DEPOSIT),
+                new PreTransaction(LocalDateTime.of(2025, 3, 5, 9, 0), "Rent", new BigDecimal("300"), TransactionType.WITHDRAWAL)));
+
+        // when
+        SortedMap<LocalDate, BigDecimal> monthlySeries = account.getBalanceSeries(
+                RollupPeriod.MONTH, LocalDate.of(2024, 12, 15), LocalDate.of(2025, 4, 1));
+        SortedMap<LocalDate, BigDecimal> dailySeries = account.getBalanceSeries(
+                RollupPeriod.DAY, LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 6));
+
+        // then
+        assertThat(monthlySeries.keySet()).containsExactly(
+                LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1),
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1));
+        assertThat(monthlySeries.values()).containsExactly(
+                new BigDecimal("0.00"), new BigDecimal("1000.00"), new BigDecimal("1000.00"), new BigDecimal("700.00"), new BigDecimal("700.00"));
+        assertThat(dailySeries.values()).containsExactly(new BigDecimal("1000.00"), new BigDecimal("700.00"), new BigDecimal("700.00"));
+        assertThat(account.getPeriodSummary(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28)).getClosingBalance())
+                .isEqualTo(new BigDecimal("1000.00"));
+        assertThatThrownBy(() -> account.getPeriodSummary(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<PreTransaction> generatePreTransactions() {
+        return RandomTransactionsGenerator.builder()
+                .seed(21)
+                .transactionsPerAccount(3000)
+                .startDate(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .dateSpan(Duration.ofDays(730))
+                .minAmount(new BigDecimal("1"))
+                .maxAmount(new BigDecimal("500"))
+                .build()
+                .generate(0)
+                .toList();
+    }
+
+    // balances are the running sum of deposits and withdrawals in date order
+    private static PeriodSummary summarize(List<Transaction> transactions, LocalDate startDate, LocalDate endDate) {
+        long openingBalance = 0;
+        long deposits = 0;
+        long withdrawals = 0;
+        int numberOfDeposits = 0;
+        int numberOfWithdrawals = 0;
+        for (Transaction transaction : transactions) {
+            LocalDate date = transaction.getDate().toLocalDate();
+            boolean deposit = transaction.getType() == TransactionType.DEPOSIT;
+            long amount = transaction.getAmountInMinorUnits();
+            if (date.isBefore(startDate)) {
+                openingBalance += deposit ? amount : -amount;
+            } else if (!date.isAfter(endDate)) {
+                if (deposit) {
+                    deposits += amount;
+                    numberOfDeposits++;
+                } else {
+                    withdrawals += amount;
+                    numberOfWithdrawals++;
+                }
+            }
+        }
+        return new PeriodSummary(startDate, endDate, deposits, withdrawals, numberOfDeposits, numberOfWithdrawals,
+                openingBalance, openingBalance + deposits - withdrawals);
+    }
+}
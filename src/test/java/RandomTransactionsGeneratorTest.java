@@ -0,0 +1,83 @@
+import kata.model.PreTransaction;
+import kata.model.TransactionType;
+import kata.utils.RandomTransactionsGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class RandomTransactionsGeneratorTest {
+
+    private final RandomTransactionsGenerator generator = RandomTransactionsGenerator.builder()
+            .seed(42)
+            .numberOfAccounts(3)
+            .transactionsPerAccount(10_000)
+            .startDate(LocalDateTime.of(2024, 1, 1, 0, 0))
+            .dateSpan(Duration.ofDays(30))
+            .depositWeight(1)
+            .withdrawalWeight(1)
+            .fullWithdrawalWeight(0)
+            .minAmount(new BigDecimal("5"))
+            .maxAmount(new BigDecimal("500"))
+            .amountDistribution(RandomTransactionsGenerator.AmountDistribution.LOG_UNIFORM)
+            .build();
+
+    @Test
+    void shouldGenerateSameTransactionsForSameSeedNoMatterHowTheyAreStreamed() {
+
+        // given, when
+        List<PreTransaction> sequentialTransactions = generator.generate(1).toList();
+        List<PreTransaction> parallelTransactions = generator.generateAll()
+                .filter(t -> t.accountId().equals(RandomTransactionsGenerator.getAccountId(1)))
+                .map(RandomTransactionsGenerator.AccountPreTransaction::preTransaction)
+                .toList();
+
+        // then
+        assertThat(parallelTransactions).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(sequentialTransactions);
+        assertThat(generator.generate(1).toList()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(sequentialTransactions);
+        assertThat(generator.generate(2).toList().get(0).getAmount()).isNotEqualTo(sequentialTransactions.get(0).getAmount());
+    }
+
+    @Test
+    void shouldGenerateDifferentTransactionsForAdjacentSeeds() {
+
+        // given
+        RandomTransactionsGenerator.RandomTransactionsGeneratorBuilder builder = RandomTransactionsGenerator.builder()
+                .numberOfAccounts(2)
+                .transactionsPerAccount(10);
+
+        // when
+        List<PreTransaction> transactions = builder.seed(42).build().generate(1).toList();
+        List<PreTransaction> nextSeedTransactions = builder.seed(43).build().generate(0).toList();
+
+        // then
+        assertThat(nextSeedTransactions).extracting(PreTransaction::getAmount)
+                .isNotEqualTo(transactions.stream().map(PreTransaction::getAmount).toList());
+    }
+
+    @Test
+    void shouldFollowConfiguredCountDateSpanTypeMixAndAmountRange() {
+
+        // given, when
+        List<PreTransaction> transactions = generator.generate(0).toList();
+        Map<TransactionType, Long> countsByType = transactions.stream()
+                .collect(Collectors.groupingBy(PreTransaction::getType, Collectors.counting()));
+
+        // then
+        assertThat(transactions).hasSize(10_000);
+        assertThat(generator.generateAll().count()).isEqualTo(generator.getTotalNumberOfTransactions());
+        assertThat(transactions).isSortedAccordingTo((first, second) -> first.getDate().compareTo(second.getDate()));
+        assertThat(transactions).allMatch(t -> !t.getDate().isBefore(LocalDateTime.of(2024, 1, 1, 0, 0))
+                && t.getDate().isBefore(LocalDateTime.of(2024, 1, 31, 0, 0)));
+        assertThat(transactions).allMatch(t -> t.getAmount().compareTo(new BigDecimal("5")) >= 0
+                && t.getAmount().compareTo(new BigDecimal("500")) <= 0);
+        assertThat(countsByType).doesNotContainKey(TransactionType.FULL_WITHDRAWAL);
+        assertThat(countsByType.get(TransactionType.DEPOSIT)).isBetween(4_500L, 5_500L);
+    }
+}
@@ -0,0 +1,101 @@
+import kata.io.Printer;
+import kata.model.Account;
+import kata.model.Money;
+import kata.model.StatementQueryResult;
+import kata.model.SumsOfTransactionsForPrinting;
+import kata.model.Transaction;
+import kata.model.TransactionLedger;
+import kata.model.TransactionType;
+import kata.utils.Calculator;
+import kata.utils.Filter;
+import kata.utils.StatementQuery;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class StatementQueryTest {
+
+    private final Account account = new Account(TestUtils.generateGeneralPreTransactions(), Mockito.mock(Printer.class));
+
+    private final LocalDateTime startTime = LocalDateTime.of(2025, 1, 25, 13, 21);
+
+    private final LocalDateTime endTime = LocalDateTime.of(2025, 2, 18, 8, 30);
+
+    @Test
+    void shouldFindSameTransactionsAndSumsAsFilterAndCalculator() {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        TransactionLedger ledger = TransactionLedger.EMPTY.addAll(transactions);
+        BigDecimal balance = account.getBalance();
+
+        for (TransactionType type : new TransactionType[]{null, TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.FULL_WITHDRAWAL}) {
+            for (LocalDateTime[] timeRange : new LocalDateTime[][]{{null, null}, {startTime, endTime}}) {
+                List<Transaction> expectedTransactions = Filter.filterTransactionsByTimeRangeAndType(
+                        transactions, timeRange[0], timeRange[1], type);
+                SumsOfTransactionsForPrinting expectedSums = Calculator.calculateSumsOfTransactionsForPrinting(
+                        balance, type, expectedTransactions);
+
+                // when
+                StatementQueryResult listResult = StatementQuery.execute(transactions, timeRange[0], timeRange[1], type);
+                StatementQueryResult ledgerResult = StatementQuery.execute(ledger, timeRange[0], timeRange[1], type);
+
+                // then
+                for (StatementQueryResult result : List.of(listResult, ledgerResult)) {
+                    assertThat(result.getTransactions()).containsExactlyElementsOf(expectedTransactions);
+                    assertThat(result.getCount()).isEqualTo(expectedTransactions.size());
+                    assertThat(result.getFirstDate()).isEqualTo(
+                            expectedTransactions.isEmpty() ? null : expectedTransactions.get(0).getDate());
+                    assertThat(result.getLastDate()).isEqualTo(
+                            expectedTransactions.isEmpty() ? null : expectedTransactions.get(expectedTransactions.size() - 1).getDate());
+                    assertThat(result.toSumsOfTransactionsForPrinting(balance, type))
+                            .usingRecursiveComparison()
+                            .isEqualTo(expectedSums);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldFindFirstAndLastDatesOfUnsortedList() {
+
+        // given
+        List<Transaction> transactions = new ArrayList<>(account.getTransactionsDeepCopy());
+        Collections.shuffle(transactions);
+
+        // when
+        StatementQueryResult result = StatementQuery.execute(transactions, startTime, endTime, TransactionType.DEPOSIT);
+
+        // then
+        assertThat(result.getFirstDate()).isEqualTo(result.getTransactions().stream().map(Transaction::getDate).min(LocalDateTime::compareTo).orElseThrow());
+        assertThat(result.getLastDate()).isEqualTo(result.getTransactions().stream().map(Transaction::getDate).max(LocalDateTime::compareTo).orElseThrow());
+        assertThat(Money.toBigDecimal(result.getSumOfDepositsInMinorUnits())).isEqualTo(
+                Calculator.calculateSumsOfTransactionsForPrinting(null, TransactionType.DEPOSIT, result.getTransactions()).getSumOfDeposits());
+        assertThat(result.getSumOfWithdrawalsInMinorUnits()).isZero();
+    }
+
+    @Test
+    void shouldReturnNoDatesWhenNothingMatches() {
+
+        // given
+        TransactionLedger ledger = TransactionLedger.EMPTY.addAll(account.getTransactionsDeepCopy());
+        LocalDateTime beforeAllTransactions = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+        // when
+        StatementQueryResult result = StatementQuery.execute(ledger, beforeAllTransactions, beforeAllTransactions, null);
+
+        // then
+        assertThat(result.getTransactions()).isEmpty();
+        assertThat(result.getCount()).isZero();
+        assertThat(result.getFirstDate()).isNull();
+        assertThat(result.getLastDate()).isNull();
+        assertThat(result.toSumsOfTransactionsForPrinting(BigDecimal.ONE, null).getSumOfDeposits()).isEqualTo(new BigDecimal("0.00"));
+    }
+}
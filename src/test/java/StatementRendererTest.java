@@ -0,0 +1,65 @@
+import kata.io.Printer;
+import kata.io.StatementRenderer;
+import kata.model.Account;
+import kata.model.SumsOfTransactionsForPrinting;
+import kata.model.Transaction;
+import kata.model.TransactionType;
+import kata.utils.Calculator;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class StatementRendererTest {
+
+    private final Printer printer = new Printer();
+
+    private final Account account = new Account(TestUtils.generateGeneralPreTransactions(), printer);
+
+    @Test
+    void shouldRenderRowsOfEqualWidthWithOneLinePerTransaction() throws Exception {
+
+        // given
+        List<Transaction> transactions = account.getTransactionsDeepCopy();
+        SumsOfTransactionsForPrinting sums = Calculator.calculateSumsOfTransactionsForPrinting(account.getBalance(), null, transactions);
+        StringWriter writer = new StringWriter();
+
+        // when
+        StatementRenderer.render(writer, transactions, sums, null, null);
+
+        // then
+        List<String> lines = writer.toString().lines().toList();
+        assertThat(lines).hasSize(transactions.size() + 8);
+        assertThat(lines).extracting(String::length).containsOnly(lines.get(0).length());
+        assertThat(lines.get(3)).contains("DATE", "DESCRIPTION", "DEPOSIT", "WITHDRAWAL", "BALANCE");
+        assertThat(lines.get(lines.size() - 2)).contains("Totals:", sums.getBalance().setScale(2).toString());
+    }
+
+    @Test
+    void shouldCutDescriptionsLongerThanSampledOnesInsteadOfBreakingColumns() throws Exception {
+
+        // given
+        List<Transaction> transactions = new ArrayList<>();
+        LocalDateTime date = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < 1500; i++) {
+            String description = i < 1000 ? "Short" : "A description much longer than any of the sampled ones";
+            transactions.add(new Transaction(date.plusMinutes(i), description, 100, 100L * (i + 1), TransactionType.DEPOSIT, null));
+        }
+        SumsOfTransactionsForPrinting sums = Calculator.calculateSumsOfTransactionsForPrinting(
+                BigDecimal.valueOf(1500), TransactionType.DEPOSIT, transactions);
+        StringWriter writer = new StringWriter();
+
+        // when
+        StatementRenderer.render(writer, transactions, sums, null, null);
+
+        // then
+        List<String> lines = writer.toString().lines().toList();
+        assertThat(lines).extracting(String::length).containsOnly(lines.get(0).length());
+        assertThat(lines.get(lines.size() - 4)).contains("…").doesNotContain("sampled");
+    }
+}
@@ -1,12 +1,15 @@
 import kata.model.Account;
 import kata.model.PreTransaction;
 import kata.model.Transaction;
+import kata.model.TransactionLedger;
 import kata.model.TransactionType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class TestUtils {
     public static BigDecimal calculateBalance(List<Transaction> transactions) {
         BigDecimal calculatedBalance = BigDecimal.ZERO;
@@ -20,6 +23,16 @@ public class TestUtils {
         return calculatedBalance;
     }
 
+    // every balance is the previous one changed by the transaction amount and the last one is the ledger balance
+    public static void assertRunningBalances(TransactionLedger ledger) {
+        List<Transaction> transactions = ledger.getTransactions();
+        for (int i = 1; i < transactions.size(); i++) {
+            assertThat(transactions.get(i).getBalanceInMinorUnits()).isEqualTo(
+                    transactions.get(i - 1).getBalanceInMinorUnits() + transactions.get(i).getBalanceChangeInMinorUnits());
+        }
+        assertThat(transactions.get(transactions.size() - 1).getBalanceInMinorUnits()).isEqualTo(ledger.getBalance());
+    }
+
     public static void performPreTransactions(List<PreTransaction> preTransactions, Account account) {
         for (PreTransaction preTransaction : preTransactions) {
             switch (preTransaction.getType()) {
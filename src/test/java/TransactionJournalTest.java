@@ -0,0 +1,262 @@
+import kata.io.Printer;
+import kata.io.SnapshotStore;
+import kata.io.TransactionJournal;
+import kata.model.Account;
+import kata.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class TransactionJournalTest {
+
+    private final Printer printer = Mockito.mock(Printer.class);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldRebuildTransactionsAndBalanceFromJournalOnRestart() throws Exception {
+        // given
+        Path journalPath = directory.resolve("account.journal");
+        List<Transaction> transactionsBeforeRestart;
+        BigDecimal balanceBeforeRestart;
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            Account account = new Account(printer, journal);
+            account.makeDeposit(new BigDecimal("1000.50"), "Salary");
+            account.makeWithdrawal(new BigDecimal("200"), "Rent");
+            account.withdrawAllFunds();
+            account.makeDeposit(new BigDecimal("35"), "Refund");
+            transactionsBeforeRestart = account.getTransactionsDeepCopy();
+            balanceBeforeRestart = account.getBalance();
+        }
+
+        // when
+        Account restoredAccount;
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            restoredAccount = new Account(printer, journal);
+        }
+
+        // then
+        List<Transaction> restoredTransactions = restoredAccount.getTransactionsDeepCopy();
+        assertThat(restoredAccount.getBalance()).isEqualTo(balanceBeforeRestart);
+        assertThat(restoredTransactions.size()).isEqualTo(transactionsBeforeRestart.size());
+        for (int i = 0; i < restoredTransactions.size(); i++) {
+            assertThat(restoredTransactions.get(i)).usingRecursiveComparison().isEqualTo(transactionsBeforeRestart.get(i));
+        }
+    }
+
+    @Test
+    void shouldDropTornRecordAtTheEndOfJournal() throws Exception {
+        // given
+        Path journalPath = directory.resolve("account.journal");
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            Account account = new Account(printer, journal);
+            account.makeDeposit(new BigDecimal("100"), "Deposit 1");
+            account.makeDeposit(new BigDecimal("200"), "Deposit 2");
+        }
+        Files.write(journalPath, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // when
+        Account restoredAccount;
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            restoredAccount = new Account(printer, journal);
+            restoredAccount.makeDeposit(new BigDecimal("300"), "Deposit 3");
+        }
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            restoredAccount = new Account(printer, journal);
+        }
+
+        // then
+        assertThat(restoredAccount.getTransactionsDeepCopy().size()).isEqualTo(3);
+        assertThat(restoredAccount.getBalance()).isEqualTo(new BigDecimal("600.00"));
+    }
+
+    @Test
+    void shouldPersistAllTransactionsAppendedConcurrently() throws Exception {
+        // given
+        Path journalPath = directory.resolve("account.journal");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            Account account = new Account(printer, journal);
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        account.makeDeposit(BigDecimal.ONE, "Deposit");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        executor.shutdown();
+
+        // then
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            Account restoredAccount = new Account(printer, journal);
+            assertThat(restoredAccount.getTransactionsDeepCopy().size()).isEqualTo(800);
+            assertThat(restoredAccount.getBalance()).isEqualTo(new BigDecimal("800.00"));
+        }
+    }
+
+    @Test
+    void shouldRecoverFromLatestSnapshotAndJournalTail() throws Exception {
+        // given
+        Path journalPath = directory.resolve("account.journal");
+        SnapshotStore snapshotStore = new SnapshotStore(directory.resolve("snapshots"));
+        List<Transaction> transactionsBeforeRestart;
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            Account account = new Account(printer, journal, snapshotStore);
+            account.makeDeposit(new BigDecimal("1000"), "Salary");
+            account.writeSnapshot(snapshotStore);
+            account.makeWithdrawal(new BigDecimal("100"), "Groceries");
+            account.writeSnapshot(snapshotStore);
+            account.makeDeposit(new BigDecimal("50"), "Refund");
+            transactionsBeforeRestart = account.getTransactionsDeepCopy();
+        }
+
+        // when
+        Account restoredAccount;
+        SnapshotStore.Snapshot latestSnapshot = snapshotStore.findLatest().orElseThrow();
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            restoredAccount = new Account(printer, journal, snapshotStore);
+            assertThat(journal.replay(latestSnapshot.journalPosition()).size()).isEqualTo(1);
+        }
+
+        // then
+        List<Transaction> restoredTransactions = restoredAccount.getTransactionsDeepCopy();
+        assertThat(restoredAccount.getBalance()).isEqualTo(new BigDecimal("950.00"));
+        assertThat(restoredTransactions.size()).isEqualTo(transactionsBeforeRestart.size());
+        for (int i = 0; i < restoredTransactions.size(); i++) {
+            assertThat(restoredTransactions.get(i)).usingRecursiveComparison().isEqualTo(transactionsBeforeRestart.get(i));
+        }
+        try (Stream<Path> snapshots = Files.list(directory.resolve("snapshots"))) {
+            assertThat(snapshots.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldNotRegisterTransactionWhichCannotBeJournaled() throws Exception {
+        // given
+        Path journalPath = directory.resolve("account.journal");
+        BigDecimal balanceBeforeRestart;
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            Account account = new Account(printer, journal);
+            account.makeDeposit(new BigDecimal("10"), "Deposit");
+
+            // when
+            Throwable thrown = catchThrowable(() -> account.makeDeposit(new BigDecimal("10"), "x".repeat(70_000)));
+
+            // then
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+            assertThat(account.getTransactionsDeepCopy().size()).isEqualTo(1);
+            balanceBeforeRestart = account.getBalance();
+        }
+        Account restoredAccount;
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            restoredAccount = new Account(printer, journal);
+        }
+        assertThat(balanceBeforeRestart).isEqualTo(new BigDecimal("10.00"));
+        assertThat(restoredAccount.getBalance()).isEqualTo(balanceBeforeRestart);
+    }
+
+    @Test
+    void shouldRejectAllFurtherAppendsAfterFailedWrite() throws Exception {
+        // given
+        // writes to /dev/full always fail with "No space left on device"
+        Path fullDevice = Path.of("/dev/full");
+        assumeTrue(Files.isWritable(fullDevice));
+        try (TransactionJournal journal = TransactionJournal.open(fullDevice)) {
+            Account account = new Account(printer, journal);
+
+            // when
+            Throwable failedWrite = catchThrowable(() -> account.makeDeposit(new BigDecimal("10"), "Deposit 1"));
+            Throwable appendAfterFailure = catchThrowable(() -> account.makeDeposit(new BigDecimal("20"), "Deposit 2"));
+
+            // then
+            assertThat(failedWrite).hasRootCauseInstanceOf(IOException.class);
+            assertThat(appendAfterFailure).isInstanceOf(IllegalStateException.class);
+            assertThat(account.getBalance()).isEqualTo(new BigDecimal("10.00"));
+        }
+    }
+
+    @Test
+    void shouldRejectAllFurtherAppendsAfterFlusherIsInterrupted() throws Exception {
+        // given
+        Set<Thread> flushersBefore = findJournalFlushers();
+        try (TransactionJournal journal = TransactionJournal.open(directory.resolve("account.journal"))) {
+            Account account = new Account(printer, journal);
+            account.makeDeposit(new BigDecimal("10"), "Deposit 1");
+            Set<Thread> flushers = findJournalFlushers();
+            flushers.removeAll(flushersBefore);
+            Thread flusher = flushers.iterator().next();
+
+            // when
+            flusher.interrupt();
+            flusher.join();
+            Throwable appendAfterInterrupt = catchThrowable(() -> account.makeDeposit(new BigDecimal("20"), "Deposit 2"));
+
+            // then
+            assertThat(appendAfterInterrupt).isInstanceOf(IllegalStateException.class);
+            assertThat(account.getBalance()).isEqualTo(new BigDecimal("10.00"));
+        }
+    }
+
+    private static Set<Thread> findJournalFlushers() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("transaction-journal-flusher"))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    @Test
+    void shouldReplayWholeJournalWhenLatestSnapshotCannotBeRead() throws Exception {
+        // given
+        Path journalPath = directory.resolve("account.journal");
+        SnapshotStore snapshotStore = new SnapshotStore(directory.resolve("snapshots"));
+        List<Transaction> transactionsBeforeRestart;
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            Account account = new Account(printer, journal, snapshotStore);
+            account.makeDeposit(new BigDecimal("1000"), "Salary");
+            account.makeWithdrawal(new BigDecimal("100"), "Groceries");
+            account.writeSnapshot(snapshotStore);
+            account.makeDeposit(new BigDecimal("50"), "Refund");
+            transactionsBeforeRestart = account.getTransactionsDeepCopy();
+        }
+        Files.write(snapshotStore.findLatest().orElseThrow().path(), new byte[]{1, 2, 3});
+
+        // when
+        Account restoredAccount;
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            restoredAccount = new Account(printer, journal, snapshotStore);
+        }
+
+        // then
+        List<Transaction> restoredTransactions = restoredAccount.getTransactionsDeepCopy();
+        assertThat(restoredAccount.getBalance()).isEqualTo(new BigDecimal("950.00"));
+        assertThat(restoredTransactions.size()).isEqualTo(transactionsBeforeRestart.size());
+        for (int i = 0; i < restoredTransactions.size(); i++) {
+            assertThat(restoredTransactions.get(i)).usingRecursiveComparison().isEqualTo(transactionsBeforeRestart.get(i));
+        }
+    }
+}